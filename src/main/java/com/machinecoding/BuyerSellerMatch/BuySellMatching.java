@@ -4,67 +4,30 @@ import java.util.*;
 
 public class BuySellMatching {
 
-    static class Offer {
-        int price;
-        int quantity;
-
-        public Offer(int price, int quantity) {
-            this.price = price;
-            this.quantity = quantity;
-        }
-    }
-
     public int getUnmatchedOrders(int[][] orders) {
         final int MOD = 1_000_000_007;
 
-        // Max heap for buy orders (sorted by price descending)
-        PriorityQueue<Offer> buyPQ = new PriorityQueue<>((a, b) -> b.price - a.price);
+        if (orders.length == 0) return 0;
 
-        // Min heap for sell orders (sorted by price ascending)
-        PriorityQueue<Offer> sellPQ = new PriorityQueue<>(Comparator.comparingInt(a -> a.price));
+        // One tick per distinct price in the batch, so widely spread prices cost no extra memory
+        int[] prices = Arrays.stream(orders).mapToInt(order -> order[0]).sorted().distinct().toArray();
 
+        // Feed the batch through a fresh order book; the book keeps price-time priority
+        // and tracks the resting quantity as orders come in
+        OrderBook book = new OrderBook(prices, orders.length);
+
+        long orderId = 0;
         for (int[] order : orders) {
             int price = order[0];
             int quantity = order[1];
             int type = order[2]; // 0 = buy, 1 = sell
+            if (quantity <= 0) continue;
 
-            if (type == 0) {
-                // Buy order
-                while (quantity > 0 && !sellPQ.isEmpty() && sellPQ.peek().price <= price) {
-                    Offer sell = sellPQ.poll();
-                    int matched = Math.min(quantity, sell.quantity);
-                    quantity -= matched;
-                    sell.quantity -= matched;
-                    if (sell.quantity > 0) {
-                        sellPQ.offer(sell); // put back the remaining quantity in case of a no match the whole order is put back
-                    }
-                }
-                if (quantity > 0) {
-                    buyPQ.offer(new Offer(price, quantity));
-                }
-            } else {
-                // Sell order
-                while (quantity > 0 && !buyPQ.isEmpty() && buyPQ.peek().price >= price) {
-                    Offer buy = buyPQ.poll();
-                    int matched = Math.min(quantity, buy.quantity);
-                    quantity -= matched;
-                    buy.quantity -= matched;
-                    if (buy.quantity > 0) {
-                        buyPQ.offer(buy);
-                    }
-                }
-                if (quantity > 0) {
-                    sellPQ.offer(new Offer(price, quantity));
-                }
-            }
+            book.submit(++orderId, type == 0 ? Side.BUY : Side.SELL, price, quantity);
         }
 
         // Count remaining unmatched orders
-        long total = 0;
-        for (Offer offer : buyPQ) total = (total + offer.quantity) % MOD;
-        for (Offer offer : sellPQ) total = (total + offer.quantity) % MOD;
-
-        return (int) total;
+        return (int) (book.restingQuantity() % MOD);
     }
 
     // Test the logic
@@ -80,5 +43,13 @@ public class BuySellMatching {
 
         int result = market.getUnmatchedOrders(orders);
         System.out.println("Unmatched orders: " + result);
+
+        // Prices at the extremes of int get one tick each instead of a four-billion-tick ladder
+        int[][] wide = {
+                {Integer.MAX_VALUE, 3, 1}, // sell 3 at the highest price
+                {1, 2, 1},                 // sell 2 at 1
+                {Integer.MAX_VALUE, 4, 0}, // buy 4 at the highest price -> takes 2 at 1, then 2 of the 3
+        };
+        System.out.println("Unmatched orders: " + market.getUnmatchedOrders(wide));
     }
 }
@@ -0,0 +1,45 @@
+package com.machinecoding.BuyerSellerMatch;
+
+import java.util.Arrays;
+
+/**
+ * Reusable fill buffer filled by {@link OrderBook#submit}. Backed by primitive arrays that only grow,
+ * so steady-state matching does not allocate. Contents are valid until the next submit.
+ */
+class Fills {
+    long takerOrderId;
+    long[] makerOrderIds = new long[16];
+    int[] prices = new int[16];
+    int[] quantities = new int[16];
+    int size;
+
+    void clear(long takerOrderId) {
+        this.takerOrderId = takerOrderId;
+        this.size = 0;
+    }
+
+    void add(long makerOrderId, int price, int quantity) {
+        if (size == prices.length) {
+            makerOrderIds = Arrays.copyOf(makerOrderIds, size * 2);
+            prices = Arrays.copyOf(prices, size * 2);
+            quantities = Arrays.copyOf(quantities, size * 2);
+        }
+        makerOrderIds[size] = makerOrderId;
+        prices[size] = price;
+        quantities[size] = quantity;
+        size++;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public String toString() {
+        StringBuilder sb = new StringBuilder("Fills{taker=").append(takerOrderId).append(", fills=[");
+        for (int i = 0; i < size; i++) {
+            if (i > 0) sb.append(", ");
+            sb.append(quantities[i]).append('@').append(prices[i]).append(" maker=").append(makerOrderIds[i]);
+        }
+        return sb.append("]}").toString();
+    }
+}
@@ -0,0 +1,176 @@
+package com.machinecoding.BuyerSellerMatch;
+
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+
+/**
+ * Event-sourced order book: every order is journaled before it is matched, and the book is
+ * snapshotted every {@code snapshotEvery} orders. Recovery loads the latest snapshot and replays
+ * only the journal records written after it, so restart cost is bounded by the snapshot interval
+ * rather than the whole day's flow. Once a snapshot is on disk the journal is truncated, so it only
+ * ever needs room for one snapshot interval.
+ */
+public class JournaledOrderBook implements AutoCloseable {
+
+    static final String JOURNAL_FILE = "orders.journal";
+    static final String SNAPSHOT_FILE = "book.snapshot";
+    static final int SNAPSHOT_VERSION = 1;
+
+    private final Path directory;
+    private final OrderJournal journal;
+    private final long snapshotEvery;
+    private final OrderBook book;
+
+    private long sinceSnapshot;
+
+    private JournaledOrderBook(Path directory, OrderJournal journal, OrderBook book, long snapshotEvery) {
+        this.directory = directory;
+        this.journal = journal;
+        this.book = book;
+        this.snapshotEvery = snapshotEvery;
+    }
+
+    /**
+     * Opens the book stored in the directory, or creates an empty one with the given dimensions.
+     * Dimensions recorded in an existing snapshot take precedence.
+     */
+    public static JournaledOrderBook open(Path directory, int minPrice, int maxPrice, int capacity,
+                                          long journalCapacity, long snapshotEvery) throws IOException {
+        if (snapshotEvery <= 0 || snapshotEvery > journalCapacity) {
+            throw new IllegalArgumentException("Snapshot interval must be positive and fit in the journal");
+        }
+        Files.createDirectories(directory);
+        OrderJournal journal = new OrderJournal(directory.resolve(JOURNAL_FILE), journalCapacity);
+
+        OrderBook book;
+        long replayFrom = 0;
+        Path snapshot = directory.resolve(SNAPSHOT_FILE);
+        if (Files.exists(snapshot)) {
+            try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(snapshot)))) {
+                int version = in.readInt();
+                if (version != SNAPSHOT_VERSION) {
+                    throw new IOException("Unsupported snapshot version " + version + " in " + snapshot);
+                }
+                replayFrom = in.readLong();
+                book = OrderBook.readSnapshot(in);
+            }
+        } else {
+            book = new OrderBook(minPrice, maxPrice, capacity);
+        }
+
+        // Replay the tail; commands the live book rejected are rejected again the same way and skipped
+        journal.replay(replayFrom, (sequence, type, orderId, side, price, quantity) -> {
+            if (type != OrderCommand.SUBMIT && type != OrderCommand.CANCEL && type != OrderCommand.REDUCE) {
+                throw new IllegalStateException("Unexpected journal record type: " + type);
+            }
+            try {
+                switch (type) {
+                    case OrderCommand.SUBMIT -> book.submit(orderId, side, price, quantity);
+                    case OrderCommand.CANCEL -> book.cancel(orderId);
+                    default -> book.reduce(orderId, quantity);
+                }
+            } catch (IllegalArgumentException | IllegalStateException e) {
+                // rejected when it was first submitted too
+            }
+        });
+
+        return new JournaledOrderBook(directory, journal, book, snapshotEvery);
+    }
+
+    public Fills submit(long orderId, Side side, int price, int quantity) throws IOException {
+        // Write-ahead: the order is durable before it can change the book
+        journal.append(OrderCommand.SUBMIT, orderId, side, price, quantity);
+        try {
+            return book.submit(orderId, side, price, quantity);
+        } finally {
+            // A rejected command stays journaled too, so it must count towards the next snapshot
+            afterCommand();
+        }
+    }
+
+    public boolean cancel(long orderId) throws IOException {
+        journal.append(OrderCommand.CANCEL, orderId, Side.BUY, 0, 0);
+        try {
+            return book.cancel(orderId);
+        } finally {
+            afterCommand();
+        }
+    }
+
+    public boolean reduce(long orderId, int newQuantity) throws IOException {
+        journal.append(OrderCommand.REDUCE, orderId, Side.BUY, 0, newQuantity);
+        try {
+            return book.reduce(orderId, newQuantity);
+        } finally {
+            afterCommand();
+        }
+    }
+
+    private void afterCommand() throws IOException {
+        if (++sinceSnapshot >= snapshotEvery) {
+            snapshot();
+        }
+    }
+
+    /**
+     * Writes the book and the journal position it covers to a temp file, forces it and atomically
+     * swaps it in, so a crash mid-snapshot leaves the previous snapshot intact. Only then is the
+     * journal truncated; a crash before that replays nothing, since the snapshot covers every record.
+     */
+    public void snapshot() throws IOException {
+        Path tmp = directory.resolve(SNAPSHOT_FILE + ".tmp");
+        try (FileOutputStream file = new FileOutputStream(tmp.toFile());
+             DataOutputStream out = new DataOutputStream(new BufferedOutputStream(file))) {
+            out.writeInt(SNAPSHOT_VERSION);
+            out.writeLong(journal.end());
+            book.writeSnapshot(out);
+            out.flush();
+            file.getFD().sync();
+        }
+        Files.move(tmp, directory.resolve(SNAPSHOT_FILE), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        journal.truncate();
+        sinceSnapshot = 0;
+    }
+
+    public OrderBook book() {
+        return book;
+    }
+
+    @Override
+    public void close() throws IOException {
+        journal.close();
+    }
+
+    // Test the logic: build a book, "crash", and recover it from snapshot + journal tail
+    public static void main(String[] args) throws IOException {
+        Path directory = Files.createTempDirectory("orderbook");
+
+        // The journal holds only 4 records, but each snapshot truncates it
+        try (JournaledOrderBook journaled = open(directory, 1, 100, 1_000, 4, 3)) {
+            journaled.submit(1, Side.BUY, 10, 5);
+            journaled.submit(2, Side.SELL, 15, 2);
+            journaled.submit(3, Side.SELL, 25, 1); // snapshot taken after this one
+            journaled.submit(4, Side.BUY, 30, 4);
+            journaled.submit(5, Side.SELL, 40, 7);
+            journaled.reduce(5, 3);
+            journaled.cancel(1);
+            // Rejected orders are journaled but never fill the journal
+            for (int i = 0; i < 10; i++) {
+                try {
+                    journaled.submit(6, Side.SELL, 500, 1);
+                } catch (IllegalArgumentException e) {
+                    // price out of range
+                }
+            }
+            System.out.println("Before restart: bid=" + journaled.book().bestBidPrice() + " ask=" + journaled.book().bestAskPrice()
+                    + " resting=" + journaled.book().restingQuantity());
+        }
+
+        try (JournaledOrderBook recovered = open(directory, 1, 100, 1_000, 4, 3)) {
+            System.out.println("After restart:  bid=" + recovered.book().bestBidPrice() + " ask=" + recovered.book().bestAskPrice()
+                    + " resting=" + recovered.book().restingQuantity());
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package com.machinecoding.BuyerSellerMatch;
+
+import java.util.Arrays;
+
+/**
+ * Open-addressing long → int map with linear probing, used to find an order's pool slot by its id
+ * without boxing. Values must be non-negative; -1 marks an empty bucket and is returned for
+ * missing keys. Removal shifts the following run back instead of leaving tombstones, so heavy
+ * cancel traffic does not slowly degrade lookups.
+ */
+class LongIntHashMap {
+
+    static final int MISSING = -1;
+
+    private long[] keys;
+    private int[] values;
+    private int mask;
+    private int shift;
+    private int size;
+
+    LongIntHashMap(int expectedSize) {
+        // Keep the load factor at or below one half
+        int capacity = Integer.highestOneBit(Math.max(2, expectedSize) * 2 - 1) << 1;
+        allocate(capacity);
+    }
+
+    private void allocate(int capacity) {
+        keys = new long[capacity];
+        values = new int[capacity];
+        Arrays.fill(values, MISSING);
+        mask = capacity - 1;
+        shift = 64 - Integer.numberOfTrailingZeros(capacity);
+    }
+
+    private int home(long key) {
+        return (int) ((key * 0x9E3779B97F4A7C15L) >>> shift);
+    }
+
+    int get(long key) {
+        for (int i = home(key); values[i] != MISSING; i = (i + 1) & mask) {
+            if (keys[i] == key) return values[i];
+        }
+        return MISSING;
+    }
+
+    void put(long key, int value) {
+        if (value < 0) {
+            throw new IllegalArgumentException("Value must be non-negative");
+        }
+        if ((size + 1) * 2 > keys.length) {
+            grow();
+        }
+
+        int i = home(key);
+        while (values[i] != MISSING) {
+            if (keys[i] == key) {
+                values[i] = value;
+                return;
+            }
+            i = (i + 1) & mask;
+        }
+        keys[i] = key;
+        values[i] = value;
+        size++;
+    }
+
+    int remove(long key) {
+        int i = home(key);
+        while (values[i] != MISSING && keys[i] != key) {
+            i = (i + 1) & mask;
+        }
+        if (values[i] == MISSING) {
+            return MISSING;
+        }
+        int removed = values[i];
+
+        // Pull back every entry in the run that would be unreachable across the new hole
+        int j = i;
+        while (true) {
+            j = (j + 1) & mask;
+            if (values[j] == MISSING) break;
+            int k = home(keys[j]);
+            boolean reachable = i <= j ? (i < k && k <= j) : (i < k || k <= j);
+            if (reachable) continue;
+            keys[i] = keys[j];
+            values[i] = values[j];
+            i = j;
+        }
+        values[i] = MISSING;
+        size--;
+        return removed;
+    }
+
+    int size() {
+        return size;
+    }
+
+    private void grow() {
+        long[] oldKeys = keys;
+        int[] oldValues = values;
+        allocate(keys.length * 2);
+        size = 0;
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldValues[i] != MISSING) put(oldKeys[i], oldValues[i]);
+        }
+    }
+}
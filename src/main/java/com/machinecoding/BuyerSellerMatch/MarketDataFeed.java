@@ -0,0 +1,157 @@
+package com.machinecoding.BuyerSellerMatch;
+
+import java.util.*;
+
+/**
+ * Market data publisher attached to an {@link OrderBook}. During a submit the book stages trade
+ * prints and the new aggregate size of every level it touched; at the end of the submit the batch
+ * is copied to each subscriber's ring.
+ * <p>
+ * The matching thread never waits for a consumer: if a subscriber's ring cannot take the batch,
+ * the batch is dropped for that subscriber only and it is marked stale. Once it has drained enough
+ * room, it gets a RESET followed by the current depth of every level, then live deltas again.
+ * Every ring must be able to hold that whole refresh at the book's maximum depth, or a subscriber
+ * that fell behind on a deep book would never catch up, so small rings are rejected up front.
+ */
+public final class MarketDataFeed {
+
+    private MarketDataSubscriber[] subscribers = new MarketDataSubscriber[0];
+
+    // Staging buffer for the current submit, grown on demand and reused
+    private byte[] types = new byte[64];
+    private Side[] sides = new Side[64];
+    private int[] prices = new int[64];
+    private long[] sizes = new long[64];
+    private int size;
+
+    // A RESET plus one event per level, for a book with every possible level non-empty
+    private final int maxRefreshEvents;
+
+    // Publishes trade prints and depth deltas from every following submit on the book
+    public MarketDataFeed(OrderBook book) {
+        this.maxRefreshEvents = book.maxLevels() + 1;
+        book.attach(this);
+    }
+
+    public MarketDataSubscriber subscribe(int capacity) {
+        if (capacity < maxRefreshEvents) {
+            throw new IllegalArgumentException("Capacity must hold a full depth refresh of " + maxRefreshEvents + " events");
+        }
+        MarketDataSubscriber subscriber = new MarketDataSubscriber(capacity);
+        subscribers = Arrays.copyOf(subscribers, subscribers.length + 1);
+        subscribers[subscribers.length - 1] = subscriber;
+        return subscriber;
+    }
+
+    void trade(int price, int quantity) {
+        stage(MarketDataSubscriber.TRADE, null, price, quantity);
+    }
+
+    void depth(Side side, int price, long levelSize) {
+        stage(MarketDataSubscriber.DEPTH, side, price, levelSize);
+    }
+
+    private void stage(byte type, Side side, int price, long value) {
+        if (size == types.length) {
+            types = Arrays.copyOf(types, size * 2);
+            sides = Arrays.copyOf(sides, size * 2);
+            prices = Arrays.copyOf(prices, size * 2);
+            sizes = Arrays.copyOf(sizes, size * 2);
+        }
+        types[size] = type;
+        sides[size] = side;
+        prices[size] = price;
+        sizes[size] = value;
+        size++;
+    }
+
+    // Called by the book at the end of every submit
+    void flush(OrderBook book) {
+        for (MarketDataSubscriber subscriber : subscribers) {
+            if (subscriber.stale) {
+                // The refresh already reflects this batch, so the batch itself is skipped
+                int refreshEvents = book.activeLevels() + 1;
+                if (subscriber.hasRoom(refreshEvents)) {
+                    subscriber.write(MarketDataSubscriber.RESET, null, 0, 0);
+                    book.writeDepth(subscriber);
+                    subscriber.publish();
+                    subscriber.stale = false;
+                }
+            } else if (subscriber.hasRoom(size)) {
+                for (int i = 0; i < size; i++) {
+                    subscriber.write(types[i], sides[i], prices[i], sizes[i]);
+                }
+                subscriber.publish();
+            } else if (size > 0) {
+                subscriber.stale = true;
+                subscriber.droppedBatches++;
+            }
+        }
+        size = 0;
+    }
+
+    // Test the logic: one subscriber keeps up, one stops polling, falls behind and has to resync
+    public static void main(String[] args) {
+        OrderBook book = new OrderBook(1, 50, 1_000);
+        MarketDataFeed feed = new MarketDataFeed(book);
+
+        MarketDataSubscriber fast = feed.subscribe(1024);
+        MarketDataSubscriber slow = feed.subscribe(64); // the smallest power of two holding a 51-event refresh
+        try {
+            feed.subscribe(4);
+        } catch (IllegalArgumentException e) {
+            System.out.println("Rejected tiny ring: " + e.getMessage());
+        }
+
+        MarketDataHandler printer = new MarketDataHandler() {
+            @Override
+            public void onTrade(int price, int quantity) {
+                System.out.println("  TRADE " + quantity + "@" + price);
+            }
+
+            @Override
+            public void onDepth(Side side, int price, long size) {
+                System.out.println("  DEPTH " + side + " " + price + " -> " + size);
+            }
+
+            @Override
+            public void onReset() {
+                System.out.println("  RESET");
+            }
+        };
+
+        book.submit(1, Side.BUY, 10, 5);
+        book.submit(2, Side.SELL, 15, 2);
+        book.submit(3, Side.SELL, 25, 1);
+        book.submit(4, Side.BUY, 30, 4); // sweeps both asks: 2 trades + 3 depth updates
+
+        System.out.println("Fast subscriber:");
+        fast.poll(printer, Integer.MAX_VALUE);
+
+        MarketDataHandler ignore = new MarketDataHandler() {
+            @Override
+            public void onTrade(int price, int quantity) {
+            }
+
+            @Override
+            public void onDepth(Side side, int price, long size) {
+            }
+
+            @Override
+            public void onReset() {
+            }
+        };
+
+        // The slow consumer stops polling while 100 more orders join the bid at 10
+        for (int i = 0; i < 100; i++) {
+            book.submit(100 + i, Side.BUY, 10, 1);
+            fast.poll(ignore, Integer.MAX_VALUE);
+        }
+        System.out.println("Slow subscriber fell behind, stale = " + slow.stale);
+        slow.poll(ignore, Integer.MAX_VALUE); // catches up on what it did get
+
+        book.submit(5, Side.SELL, 40, 7); // slow ring has room again, so it receives a refresh
+        System.out.println("Slow subscriber after resync:");
+        slow.poll(printer, Integer.MAX_VALUE);
+    }
+}
@@ -0,0 +1,11 @@
+package com.machinecoding.BuyerSellerMatch;
+
+interface MarketDataHandler {
+    void onTrade(int price, int quantity);
+
+    // New aggregate size of one price level; 0 means the level is gone
+    void onDepth(Side side, int price, long size);
+
+    // Drop the local depth view; a full set of onDepth updates follows
+    void onReset();
+}
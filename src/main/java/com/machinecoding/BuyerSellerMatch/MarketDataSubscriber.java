@@ -0,0 +1,77 @@
+package com.machinecoding.BuyerSellerMatch;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * One subscriber's bounded single-producer / single-consumer ring of market data events.
+ * The matching thread writes a whole batch and then publishes it with one ordered store,
+ * so the consumer only ever sees complete batches.
+ */
+class MarketDataSubscriber {
+
+    static final byte TRADE = 1;
+    static final byte DEPTH = 2;
+    static final byte RESET = 3;
+
+    private final int mask;
+    private final byte[] types;
+    private final Side[] sides;
+    private final int[] prices;
+    private final long[] sizes;
+
+    private final AtomicLong published = new AtomicLong();
+    private final AtomicLong consumed = new AtomicLong();
+    private long writePos; // producer only
+
+    // Producer-side state: set when a batch did not fit, cleared once a depth refresh is delivered
+    boolean stale;
+    long droppedBatches;
+
+    MarketDataSubscriber(int capacity) {
+        if (capacity <= 0 || Integer.bitCount(capacity) != 1) {
+            throw new IllegalArgumentException("Capacity must be a power of two");
+        }
+        this.mask = capacity - 1;
+        this.types = new byte[capacity];
+        this.sides = new Side[capacity];
+        this.prices = new int[capacity];
+        this.sizes = new long[capacity];
+    }
+
+    // Producer side
+    boolean hasRoom(int events) {
+        return writePos + events - consumed.get() <= mask + 1;
+    }
+
+    void write(byte type, Side side, int price, long size) {
+        int i = (int) writePos & mask;
+        types[i] = type;
+        sides[i] = side;
+        prices[i] = price;
+        sizes[i] = size;
+        writePos++;
+    }
+
+    void publish() {
+        published.lazySet(writePos);
+    }
+
+    // Consumer side: hands up to maxEvents published events to the handler, returns how many
+    int poll(MarketDataHandler handler, int maxEvents) {
+        long from = consumed.get();
+        long to = Math.min(published.get(), from + maxEvents);
+
+        for (long pos = from; pos < to; pos++) {
+            int i = (int) pos & mask;
+            switch (types[i]) {
+                case TRADE -> handler.onTrade(prices[i], (int) sizes[i]);
+                case DEPTH -> handler.onDepth(sides[i], prices[i], sizes[i]);
+                case RESET -> handler.onReset();
+                default -> throw new IllegalStateException("Unexpected event type: " + types[i]);
+            }
+        }
+
+        consumed.lazySet(to);
+        return (int) (to - from);
+    }
+}
@@ -0,0 +1,224 @@
+package com.machinecoding.BuyerSellerMatch;
+
+import java.util.*;
+
+/**
+ * One matcher thread that owns a group of symbols. Only this thread touches its books, so the
+ * books need no locks; producers reach it through its {@link OrderRingBuffer}.
+ */
+class MatchingShard implements Runnable {
+
+    final int shardId;
+    final OrderRingBuffer inbound;
+    // Indexed by global symbol id; slots for other shards' symbols stay null
+    OrderBook[] books = new OrderBook[0];
+    int symbolCount;
+
+    private volatile boolean running = true;
+    private Thread thread;
+
+    // Written only by the shard thread; read through report() once the shard has stopped
+    long processed;
+    long rejected;
+    long fills;
+    long startNanos;
+    long stopNanos;
+    // Bucket i counts queue-to-match latencies in [2^i, 2^(i+1)) nanoseconds
+    final long[] latencyBuckets = new long[64];
+
+    MatchingShard(int shardId, int ringCapacity) {
+        this.shardId = shardId;
+        this.inbound = new OrderRingBuffer(ringCapacity);
+    }
+
+    void addBook(int symbolId, OrderBook book) {
+        if (symbolId >= books.length) {
+            books = Arrays.copyOf(books, symbolId + 1);
+        }
+        books[symbolId] = book;
+        symbolCount++;
+    }
+
+    void start() {
+        thread = new Thread(this, "matcher-" + shardId);
+        thread.start();
+    }
+
+    void stop() throws InterruptedException {
+        running = false;
+        thread.join();
+    }
+
+    @Override
+    public void run() {
+        OrderCommand cmd = new OrderCommand();
+        startNanos = System.nanoTime();
+
+        // Keep draining after stop() so nothing accepted is lost
+        while (running || !inbound.isEmpty()) {
+            if (!inbound.poll(cmd)) {
+                Thread.onSpinWait();
+                continue;
+            }
+
+            OrderBook book = books[cmd.symbolId];
+            try {
+                switch (cmd.type) {
+                    case OrderCommand.SUBMIT -> fills += book.submit(cmd.orderId, cmd.side, cmd.price, cmd.quantity).size();
+                    case OrderCommand.CANCEL -> book.cancel(cmd.orderId);
+                    case OrderCommand.REDUCE -> book.reduce(cmd.orderId, cmd.quantity);
+                    default -> throw new IllegalStateException("Unexpected command type: " + cmd.type);
+                }
+                processed++;
+            } catch (IllegalArgumentException | IllegalStateException e) {
+                rejected++;
+            }
+
+            long latency = Math.max(1, System.nanoTime() - cmd.enqueuedAtNanos);
+            latencyBuckets[63 - Long.numberOfLeadingZeros(latency)]++;
+        }
+
+        stopNanos = System.nanoTime();
+    }
+
+    // Upper bound of the bucket holding the given percentile, in nanoseconds
+    long latencyPercentile(double percentile) {
+        long total = 0;
+        for (long count : latencyBuckets) total += count;
+        if (total == 0) return 0;
+
+        long target = (long) Math.ceil(total * percentile / 100.0);
+        long seen = 0;
+        for (int i = 0; i < latencyBuckets.length; i++) {
+            seen += latencyBuckets[i];
+            if (seen >= target) return 1L << (i + 1);
+        }
+        return Long.MAX_VALUE;
+    }
+
+    String report() {
+        double seconds = Math.max(1, stopNanos - startNanos) / 1e9;
+        return String.format("shard %d: symbols=%d processed=%d rejected=%d fills=%d throughput=%.0f orders/s latency p50<=%dns p99<=%dns p99.9<=%dns",
+                shardId, symbolCount, processed, rejected, fills, processed / seconds,
+                latencyPercentile(50), latencyPercentile(99), latencyPercentile(99.9));
+    }
+}
+
+/**
+ * Multi-symbol matching service. Symbols are assigned round-robin to a fixed number of
+ * single-writer shards; every order is routed to its symbol's shard through a lock-free ring,
+ * so adding shards spreads the books across cores without any book taking a lock.
+ * <p>
+ * Symbols must be registered before {@link #start()}. After that the symbol table is read-only
+ * and can be shared by any number of producer threads.
+ */
+public class MatchingService {
+
+    private final MatchingShard[] shards;
+    private final Map<String, Integer> symbolIds = new HashMap<>();
+    private final List<MatchingShard> symbolShards = new ArrayList<>();
+    private boolean started;
+
+    public MatchingService(int shardCount, int ringCapacity) {
+        if (shardCount <= 0) {
+            throw new IllegalArgumentException("Need at least one shard");
+        }
+        shards = new MatchingShard[shardCount];
+        for (int i = 0; i < shardCount; i++) {
+            shards[i] = new MatchingShard(i, ringCapacity);
+        }
+    }
+
+    public int addSymbol(String symbol, int minPrice, int maxPrice, int capacity) {
+        if (started) {
+            throw new IllegalStateException("Symbols must be added before start");
+        }
+        if (symbolIds.containsKey(symbol)) {
+            throw new IllegalArgumentException("Symbol already exists " + symbol);
+        }
+
+        int symbolId = symbolShards.size();
+        MatchingShard shard = shards[symbolId % shards.length];
+        shard.addBook(symbolId, new OrderBook(minPrice, maxPrice, capacity));
+
+        symbolIds.put(symbol, symbolId);
+        symbolShards.add(shard);
+        return symbolId;
+    }
+
+    public int symbolId(String symbol) {
+        Integer id = symbolIds.get(symbol);
+        if (id == null) {
+            throw new IllegalArgumentException("Unknown symbol " + symbol);
+        }
+        return id;
+    }
+
+    public void start() {
+        started = true;
+        for (MatchingShard shard : shards) shard.start();
+    }
+
+    public void submit(int symbolId, long orderId, Side side, int price, int quantity) {
+        route(OrderCommand.SUBMIT, symbolId, orderId, side, price, quantity);
+    }
+
+    public void cancel(int symbolId, long orderId) {
+        route(OrderCommand.CANCEL, symbolId, orderId, Side.BUY, 0, 0);
+    }
+
+    public void reduce(int symbolId, long orderId, int newQuantity) {
+        route(OrderCommand.REDUCE, symbolId, orderId, Side.BUY, 0, newQuantity);
+    }
+
+    // Spins while the shard's ring is full, so a saturated shard pushes back on its producers
+    private void route(byte type, int symbolId, long orderId, Side side, int price, int quantity) {
+        OrderRingBuffer ring = symbolShards.get(symbolId).inbound;
+        while (!ring.offer(type, symbolId, orderId, side, price, quantity, System.nanoTime())) {
+            Thread.onSpinWait();
+        }
+    }
+
+    public void submit(String symbol, long orderId, Side side, int price, int quantity) {
+        submit(symbolId(symbol), orderId, side, price, quantity);
+    }
+
+    // Drains every shard and stops its thread
+    public void stop() throws InterruptedException {
+        for (MatchingShard shard : shards) shard.stop();
+    }
+
+    // Per-shard throughput and latency; only meaningful after stop()
+    public List<String> report() {
+        List<String> lines = new ArrayList<>();
+        for (MatchingShard shard : shards) lines.add(shard.report());
+        return lines;
+    }
+
+    // Test the logic: push the same random flow through different shard counts
+    public static void main(String[] args) throws InterruptedException {
+        int symbols = 16;
+        int ordersPerSymbol = 200_000;
+
+        for (int shardCount : new int[]{1, 2, 4}) {
+            MatchingService service = new MatchingService(shardCount, 1 << 16);
+            for (int s = 0; s < symbols; s++) {
+                service.addSymbol("SYM" + s, 1, 1_000, ordersPerSymbol);
+            }
+            service.start();
+
+            Random random = new Random(42);
+            long orderId = 0;
+            for (int i = 0; i < ordersPerSymbol; i++) {
+                for (int s = 0; s < symbols; s++) {
+                    Side side = random.nextBoolean() ? Side.BUY : Side.SELL;
+                    service.submit(s, ++orderId, side, 450 + random.nextInt(100), 1 + random.nextInt(10));
+                }
+            }
+            service.stop();
+
+            System.out.println("Shards: " + shardCount);
+            service.report().forEach(System.out::println);
+        }
+    }
+}
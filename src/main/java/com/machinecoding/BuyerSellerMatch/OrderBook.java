@@ -0,0 +1,432 @@
+package com.machinecoding.BuyerSellerMatch;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * Long-lived limit order book with price-time priority.
+ * <p>
+ * Storage is entirely primitive: price levels are indexed by tick and orders live in a preallocated
+ * pool where each level is an intrusive doubly linked FIFO list of slots. Nothing is allocated per
+ * order, so a full book does not add GC pressure.
+ * <p>
+ * A tick is either {@code price - minPrice}, for a book that accepts every price in a range of at
+ * most {@link #MAX_TICKS}, or the index of the price in a sorted ladder of the only prices the book
+ * accepts, for batches whose prices are known up front but spread arbitrarily wide. An occupancy
+ * bitmap over the ticks finds the next best level without stepping through empty ones.
+ * <p>
+ * Bids are always strictly below asks (anything crossing would have matched), so one set of level
+ * arrays serves both sides.
+ * <p>
+ * Resting orders are indexed by id in a primitive hash map, so cancel and reduce find their slot in
+ * O(1) and unlink it from the level without touching any other order.
+ */
+public class OrderBook {
+
+    static final int NONE = -1;
+    static final int MAX_TICKS = 1 << 24;
+
+    private final int minPrice;
+    private final int maxPrice;
+    private final int[] ladder; // Sorted distinct prices, one per tick; null when the ticks are a price range
+
+    // Order pool, indexed by slot
+    private final long[] orderIds;
+    private final int[] quantities;
+    private final int[] ticks;
+    private final Side[] sides;
+    private final int[] next;
+    private final int[] prev;
+    private int freeHead;
+    private final LongIntHashMap slotsById;
+
+    // Price levels, indexed by tick
+    private final int[] levelHead;
+    private final int[] levelTail;
+    private final long[] levelQuantity;
+    private final TickBitmap occupied;
+
+    private int bestBid = NONE;
+    private int bestAsk = NONE;
+    private int bidOrders;
+    private int askOrders;
+    private int activeLevels;
+
+    private long restingQuantity;
+
+    private final Fills fills = new Fills();
+    private MarketDataFeed feed;
+
+    public OrderBook(int minPrice, int maxPrice, int capacity) {
+        this(checkRange(minPrice, maxPrice), maxPrice, null, capacity);
+    }
+
+    // A book that only accepts the given prices, however far apart
+    public OrderBook(int[] prices, int capacity) {
+        this(checkLadder(prices), prices[prices.length - 1], prices.clone(), capacity);
+    }
+
+    private OrderBook(int minPrice, int maxPrice, int[] ladder, int capacity) {
+        if (minPrice > maxPrice || capacity <= 0) {
+            throw new IllegalArgumentException("Invalid book dimensions");
+        }
+        this.minPrice = minPrice;
+        this.maxPrice = maxPrice;
+        this.ladder = ladder;
+
+        this.orderIds = new long[capacity];
+        this.quantities = new int[capacity];
+        this.ticks = new int[capacity];
+        this.sides = new Side[capacity];
+        this.slotsById = new LongIntHashMap(capacity);
+        this.next = new int[capacity];
+        this.prev = new int[capacity];
+
+        // Chain every slot into the free list
+        for (int i = 0; i < capacity; i++) {
+            next[i] = i + 1 < capacity ? i + 1 : NONE;
+        }
+        freeHead = 0;
+
+        int ticks = ladder != null ? ladder.length : maxPrice - minPrice + 1;
+        this.levelHead = new int[ticks];
+        this.levelTail = new int[ticks];
+        this.levelQuantity = new long[ticks];
+        this.occupied = new TickBitmap(ticks);
+        Arrays.fill(levelHead, NONE);
+        Arrays.fill(levelTail, NONE);
+    }
+
+    // Returns minPrice; the range is measured in long so extreme prices cannot overflow it
+    private static int checkRange(int minPrice, int maxPrice) {
+        if ((long) maxPrice - minPrice + 1 > MAX_TICKS) {
+            throw new IllegalArgumentException("Price range wider than " + MAX_TICKS + " ticks; list the prices instead");
+        }
+        return minPrice;
+    }
+
+    // Returns the lowest price
+    private static int checkLadder(int[] prices) {
+        if (prices.length == 0) {
+            throw new IllegalArgumentException("Invalid book dimensions");
+        }
+        for (int i = 1; i < prices.length; i++) {
+            if (prices[i] <= prices[i - 1]) {
+                throw new IllegalArgumentException("Prices must be sorted and distinct");
+            }
+        }
+        return prices[0];
+    }
+
+    // NONE if the book does not accept the price
+    private int tickOf(int price) {
+        if (price < minPrice || price > maxPrice) return NONE;
+        if (ladder == null) return price - minPrice;
+        int tick = Arrays.binarySearch(ladder, price);
+        return tick < 0 ? NONE : tick;
+    }
+
+    private int priceOf(int tick) {
+        return ladder == null ? tick + minPrice : ladder[tick];
+    }
+
+    /**
+     * Matches the order against the opposite side and rests whatever is left.
+     * Returns the fill buffer, which is reused by the next call.
+     */
+    public Fills submit(long orderId, Side side, int price, int quantity) {
+        if (quantity <= 0) {
+            throw new IllegalArgumentException("Quantity must be positive");
+        }
+        int tick = tickOf(price);
+        if (tick == NONE) {
+            throw new IllegalArgumentException("Price out of range: " + price);
+        }
+        if (slotsById.get(orderId) != LongIntHashMap.MISSING) {
+            throw new IllegalArgumentException("Order already resting: " + orderId);
+        }
+
+        fills.clear(orderId);
+
+        try {
+            if (side == Side.BUY) {
+                // Buy order: take liquidity from the cheapest asks first
+                while (quantity > 0 && bestAsk != NONE && bestAsk <= tick) {
+                    quantity = match(quantity, bestAsk, Side.SELL);
+                    if (levelHead[bestAsk] == NONE) {
+                        bestAsk = nextAsk(bestAsk);
+                    }
+                }
+            } else {
+                // Sell order: take liquidity from the highest bids first
+                while (quantity > 0 && bestBid != NONE && bestBid >= tick) {
+                    quantity = match(quantity, bestBid, Side.BUY);
+                    if (levelHead[bestBid] == NONE) {
+                        bestBid = nextBid(bestBid);
+                    }
+                }
+            }
+
+            if (quantity > 0) {
+                rest(orderId, side, tick, quantity);
+                if (feed != null) feed.depth(side, price, levelQuantity[tick]);
+            }
+        } finally {
+            // Trades already matched happened even if resting the remainder failed; publish them with this order
+            if (feed != null) feed.flush(this);
+        }
+        return fills;
+    }
+
+    // Fill against the level in FIFO order until either side runs out; returns the taker's leftover
+    private int match(int quantity, int tick, Side makerSide) {
+        while (quantity > 0 && levelHead[tick] != NONE) {
+            int maker = levelHead[tick];
+            int matched = Math.min(quantity, quantities[maker]);
+
+            quantity -= matched;
+            quantities[maker] -= matched;
+            levelQuantity[tick] -= matched;
+            restingQuantity -= matched;
+
+            fills.add(orderIds[maker], priceOf(tick), matched);
+            if (feed != null) feed.trade(priceOf(tick), matched);
+
+            if (quantities[maker] == 0) {
+                remove(maker);
+            }
+        }
+
+        // One depth update per level touched, however many makers were filled in it
+        if (feed != null) feed.depth(makerSide, priceOf(tick), levelQuantity[tick]);
+        return quantity;
+    }
+
+    private void rest(long orderId, Side side, int tick, int quantity) {
+        int slot = freeHead;
+        if (slot == NONE) {
+            throw new IllegalStateException("Order pool exhausted");
+        }
+        freeHead = next[slot];
+
+        orderIds[slot] = orderId;
+        quantities[slot] = quantity;
+        ticks[slot] = tick;
+        sides[slot] = side;
+        slotsById.put(orderId, slot);
+
+        // Append to the tail of the level to keep time priority
+        next[slot] = NONE;
+        prev[slot] = levelTail[tick];
+        if (levelTail[tick] == NONE) {
+            levelHead[tick] = slot;
+            activeLevels++;
+            occupied.set(tick);
+        } else {
+            next[levelTail[tick]] = slot;
+        }
+        levelTail[tick] = slot;
+
+        levelQuantity[tick] += quantity;
+        restingQuantity += quantity;
+
+        if (side == Side.BUY) {
+            bidOrders++;
+            if (bestBid == NONE || tick > bestBid) bestBid = tick;
+        } else {
+            askOrders++;
+            if (bestAsk == NONE || tick < bestAsk) bestAsk = tick;
+        }
+    }
+
+    /**
+     * Removes a resting order. Returns false if no order with that id is resting
+     * (already filled, already cancelled or never seen).
+     */
+    public boolean cancel(long orderId) {
+        int slot = slotsById.get(orderId);
+        if (slot == LongIntHashMap.MISSING) {
+            return false;
+        }
+
+        int tick = ticks[slot];
+        Side side = sides[slot];
+        levelQuantity[tick] -= quantities[slot];
+        restingQuantity -= quantities[slot];
+        remove(slot);
+
+        // Only an emptied best level moves the top of book
+        if (levelHead[tick] == NONE) {
+            if (tick == bestBid) bestBid = nextBid(tick);
+            else if (tick == bestAsk) bestAsk = nextAsk(tick);
+        }
+
+        if (feed != null) {
+            feed.depth(side, priceOf(tick), levelQuantity[tick]);
+            feed.flush(this);
+        }
+        return true;
+    }
+
+    /**
+     * Lowers a resting order's quantity in place, keeping its queue position.
+     * Reducing to zero is a cancel; increasing is not allowed since it would have to lose priority.
+     */
+    public boolean reduce(long orderId, int newQuantity) {
+        if (newQuantity == 0) {
+            return cancel(orderId);
+        }
+
+        int slot = slotsById.get(orderId);
+        if (slot == LongIntHashMap.MISSING) {
+            return false;
+        }
+        if (newQuantity < 0 || newQuantity >= quantities[slot]) {
+            throw new IllegalArgumentException("New quantity must be below the resting quantity " + quantities[slot]);
+        }
+
+        int tick = ticks[slot];
+        int delta = quantities[slot] - newQuantity;
+        quantities[slot] = newQuantity;
+        levelQuantity[tick] -= delta;
+        restingQuantity -= delta;
+
+        if (feed != null) {
+            feed.depth(sides[slot], priceOf(tick), levelQuantity[tick]);
+            feed.flush(this);
+        }
+        return true;
+    }
+
+    // Takes a slot out of its level, the id index and the side counts, and returns it to the pool
+    private void remove(int slot) {
+        int tick = ticks[slot];
+        unlink(slot, tick);
+        slotsById.remove(orderIds[slot]);
+        if (sides[slot] == Side.BUY) bidOrders--; else askOrders--;
+        if (levelHead[tick] == NONE) {
+            activeLevels--;
+            occupied.clear(tick);
+        }
+        sides[slot] = null;
+        release(slot);
+    }
+
+    private void unlink(int slot, int tick) {
+        if (prev[slot] == NONE) levelHead[tick] = next[slot]; else next[prev[slot]] = next[slot];
+        if (next[slot] == NONE) levelTail[tick] = prev[slot]; else prev[next[slot]] = prev[slot];
+    }
+
+    private void release(int slot) {
+        next[slot] = freeHead;
+        freeHead = slot;
+    }
+
+    // Next non-empty level below an emptied best bid; every level below the best bid is a bid
+    private int nextBid(int from) {
+        if (bidOrders == 0) return NONE;
+        return occupied.nextBelow(from);
+    }
+
+    // Next non-empty level above an emptied best ask; every level above the best ask is an ask
+    private int nextAsk(int from) {
+        if (askOrders == 0) return NONE;
+        return occupied.nextAbove(from);
+    }
+
+    /**
+     * Writes the book dimensions and every resting order, level by level from the lowest price up
+     * and oldest first within a level, so {@link #readSnapshot} restores the exact queue positions.
+     */
+    void writeSnapshot(DataOutput out) throws IOException {
+        out.writeInt(minPrice);
+        out.writeInt(maxPrice);
+        out.writeInt(ladder == null ? -1 : ladder.length);
+        if (ladder != null) {
+            for (int price : ladder) out.writeInt(price);
+        }
+        out.writeInt(orderIds.length);
+        out.writeInt(bidOrders + askOrders);
+
+        for (int tick = 0; tick < levelHead.length; tick++) {
+            for (int slot = levelHead[tick]; slot != NONE; slot = next[slot]) {
+                out.writeLong(orderIds[slot]);
+                out.writeInt(priceOf(tick));
+                out.writeInt(quantities[slot]);
+                out.writeByte(sides[slot].ordinal());
+            }
+        }
+    }
+
+    static OrderBook readSnapshot(DataInput in) throws IOException {
+        int minPrice = in.readInt();
+        int maxPrice = in.readInt();
+        int ladderLength = in.readInt(); // -1 for a price range
+        int[] ladder = null;
+        if (ladderLength >= 0) {
+            ladder = new int[ladderLength];
+            for (int i = 0; i < ladderLength; i++) ladder[i] = in.readInt();
+        }
+        int capacity = in.readInt();
+        int orders = in.readInt();
+
+        OrderBook book = ladder == null ? new OrderBook(minPrice, maxPrice, capacity) : new OrderBook(ladder, capacity);
+        for (int i = 0; i < orders; i++) {
+            long orderId = in.readLong();
+            int price = in.readInt();
+            int quantity = in.readInt();
+            Side side = Side.values()[in.readByte()];
+            // Snapshotted orders never cross, so they go straight onto their level
+            book.rest(orderId, side, book.tickOf(price), quantity);
+        }
+        return book;
+    }
+
+    // Called by the feed built for this book; it then sees every following submit
+    void attach(MarketDataFeed feed) {
+        this.feed = feed;
+    }
+
+    int activeLevels() {
+        return activeLevels;
+    }
+
+    // Most levels that can be non-empty at once: each holds at least one order from the pool
+    int maxLevels() {
+        return Math.min(levelHead.length, orderIds.length);
+    }
+
+    // Current size of every non-empty level; only used to resync a subscriber that fell behind
+    void writeDepth(MarketDataSubscriber subscriber) {
+        for (int tick = 0; tick < levelHead.length; tick++) {
+            if (levelHead[tick] != NONE) {
+                subscriber.write(MarketDataSubscriber.DEPTH, sides[levelHead[tick]], priceOf(tick), levelQuantity[tick]);
+            }
+        }
+    }
+
+    // -1 if there is no bid
+    public int bestBidPrice() {
+        return bestBid == NONE ? -1 : priceOf(bestBid);
+    }
+
+    // -1 if there is no ask
+    public int bestAskPrice() {
+        return bestAsk == NONE ? -1 : priceOf(bestAsk);
+    }
+
+    public long bestBidQuantity() {
+        return bestBid == NONE ? 0 : levelQuantity[bestBid];
+    }
+
+    public long bestAskQuantity() {
+        return bestAsk == NONE ? 0 : levelQuantity[bestAsk];
+    }
+
+    // Total quantity still resting on both sides of the book
+    public long restingQuantity() {
+        return restingQuantity;
+    }
+}
@@ -0,0 +1,16 @@
+package com.machinecoding.BuyerSellerMatch;
+
+// Mutable holder the consumer copies a command into, reused for every poll
+class OrderCommand {
+    static final byte SUBMIT = 1;
+    static final byte CANCEL = 2;
+    static final byte REDUCE = 3; // quantity holds the new, lower quantity
+
+    byte type;
+    int symbolId;
+    long orderId;
+    Side side;
+    int price;
+    int quantity;
+    long enqueuedAtNanos;
+}
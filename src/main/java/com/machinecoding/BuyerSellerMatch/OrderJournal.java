@@ -0,0 +1,109 @@
+package com.machinecoding.BuyerSellerMatch;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+interface JournalReader {
+    void onRecord(long sequence, byte type, long orderId, Side side, int price, int quantity);
+}
+
+/**
+ * Append-only order journal in a memory-mapped file of fixed-width records.
+ * <p>
+ * Layout: a 64 byte header holding the sequence after the last committed record and the sequence
+ * of the first record still kept, followed by {@link #RECORD_BYTES} byte records. A record is
+ * written first and the end is bumped afterwards, so a half-written record at the tail is never
+ * replayed. Writes land in the page cache and survive a process crash; call {@link #force()} to
+ * also survive a machine crash. Record types are the {@link OrderCommand} constants.
+ * <p>
+ * Sequences keep counting across {@link #truncate()}, which drops every record once a snapshot
+ * covers them by moving the first kept sequence up to the end in one write, so the space is reused
+ * and a crash on either side of it replays the same records.
+ */
+class OrderJournal implements AutoCloseable {
+
+    static final int HEADER_BYTES = 64;
+    static final int RECORD_BYTES = 24;
+    private static final int END = 0, START = 8;
+
+    private final FileChannel channel;
+    private final MappedByteBuffer buffer;
+    private final long maxRecords;
+    private long start;
+    private long end;
+
+    OrderJournal(Path path, long maxRecords) throws IOException {
+        long bytes = HEADER_BYTES + maxRecords * RECORD_BYTES;
+        if (maxRecords <= 0 || bytes > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Journal capacity must fit in one mapping");
+        }
+        this.maxRecords = maxRecords;
+        this.channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        this.buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, bytes);
+        this.end = buffer.getLong(END);
+        this.start = buffer.getLong(START);
+    }
+
+    // Returns the sequence number of the appended record
+    long append(byte type, long orderId, Side side, int price, int quantity) {
+        if (end - start == maxRecords) {
+            throw new IllegalStateException("Journal full");
+        }
+
+        int offset = offset(end);
+        buffer.putLong(offset, orderId);
+        buffer.putInt(offset + 8, price);
+        buffer.putInt(offset + 12, quantity);
+        buffer.put(offset + 16, type);
+        buffer.put(offset + 17, (byte) side.ordinal());
+
+        long sequence = end++;
+        buffer.putLong(END, end);
+        return sequence;
+    }
+
+    // Replays every committed record with sequence >= fromSequence, in append order
+    void replay(long fromSequence, JournalReader reader) {
+        if (fromSequence < start) {
+            throw new IllegalStateException("Records before " + start + " were truncated; cannot replay from " + fromSequence);
+        }
+        Side[] sides = Side.values();
+        for (long sequence = fromSequence; sequence < end; sequence++) {
+            int offset = offset(sequence);
+            reader.onRecord(sequence,
+                    buffer.get(offset + 16),
+                    buffer.getLong(offset),
+                    sides[buffer.get(offset + 17)],
+                    buffer.getInt(offset + 8),
+                    buffer.getInt(offset + 12));
+        }
+    }
+
+    // Sequence the next record gets
+    long end() {
+        return end;
+    }
+
+    // Drops every record; only once a durable snapshot covers them
+    void truncate() {
+        start = end;
+        buffer.putLong(START, start);
+    }
+
+    private int offset(long sequence) {
+        return (int) (HEADER_BYTES + (sequence - start) * RECORD_BYTES);
+    }
+
+    void force() {
+        buffer.force();
+    }
+
+    @Override
+    public void close() throws IOException {
+        buffer.force();
+        channel.close();
+    }
+}
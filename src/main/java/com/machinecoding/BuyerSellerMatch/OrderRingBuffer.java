@@ -0,0 +1,98 @@
+package com.machinecoding.BuyerSellerMatch;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Bounded lock-free multi-producer / single-consumer ring of order commands.
+ * <p>
+ * Each slot carries a sequence number (the classic Vyukov bounded queue): a producer claims a
+ * position with one CAS on the tail, writes the slot's primitive fields and then publishes it by
+ * bumping the slot sequence. The single consumer reads the slot once the sequence says it is
+ * published and hands the slot back by moving its sequence one lap ahead. With one producer the
+ * CAS never fails, so the same ring doubles as an SPSC queue.
+ */
+class OrderRingBuffer {
+
+    private final int mask;
+    private final AtomicLongArray sequences;
+
+    private final byte[] types;
+    private final int[] symbolIds;
+    private final long[] orderIds;
+    private final Side[] sides;
+    private final int[] prices;
+    private final int[] quantities;
+    private final long[] enqueuedAtNanos;
+
+    private final AtomicLong tail = new AtomicLong();
+    private long head; // only touched by the consumer
+
+    OrderRingBuffer(int capacity) {
+        if (capacity <= 0 || Integer.bitCount(capacity) != 1) {
+            throw new IllegalArgumentException("Capacity must be a power of two");
+        }
+        this.mask = capacity - 1;
+        this.sequences = new AtomicLongArray(capacity);
+        for (int i = 0; i < capacity; i++) {
+            sequences.set(i, i);
+        }
+        this.types = new byte[capacity];
+        this.symbolIds = new int[capacity];
+        this.orderIds = new long[capacity];
+        this.sides = new Side[capacity];
+        this.prices = new int[capacity];
+        this.quantities = new int[capacity];
+        this.enqueuedAtNanos = new long[capacity];
+    }
+
+    // Returns false if the ring is full; the caller decides whether to spin or reject
+    boolean offer(byte type, int symbolId, long orderId, Side side, int price, int quantity, long nowNanos) {
+        long pos;
+        while (true) {
+            pos = tail.get();
+            long diff = sequences.get((int) pos & mask) - pos;
+            if (diff == 0) {
+                if (tail.compareAndSet(pos, pos + 1)) break;
+            } else if (diff < 0) {
+                return false;
+            }
+            // diff > 0: another producer claimed this position, reload the tail
+        }
+
+        int i = (int) pos & mask;
+        types[i] = type;
+        symbolIds[i] = symbolId;
+        orderIds[i] = orderId;
+        sides[i] = side;
+        prices[i] = price;
+        quantities[i] = quantity;
+        enqueuedAtNanos[i] = nowNanos;
+        sequences.lazySet(i, pos + 1);
+        return true;
+    }
+
+    // Consumer side only
+    boolean poll(OrderCommand into) {
+        int i = (int) head & mask;
+        if (sequences.get(i) != head + 1) {
+            return false;
+        }
+
+        into.type = types[i];
+        into.symbolId = symbolIds[i];
+        into.orderId = orderIds[i];
+        into.side = sides[i];
+        into.price = prices[i];
+        into.quantity = quantities[i];
+        into.enqueuedAtNanos = enqueuedAtNanos[i];
+
+        sequences.lazySet(i, head + mask + 1);
+        head++;
+        return true;
+    }
+
+    boolean isEmpty() {
+        return sequences.get((int) head & mask) != head + 1;
+    }
+}
@@ -0,0 +1,6 @@
+package com.machinecoding.BuyerSellerMatch;
+
+enum Side {
+    BUY,
+    SELL
+}
@@ -0,0 +1,78 @@
+package com.machinecoding.BuyerSellerMatch;
+
+/**
+ * One bit per price tick, set while the level has resting orders, with a summary bit per 64-bit
+ * word that is set while the word is non-zero. Finding the next occupied tick above or below a
+ * given one scans at most one word, then the summary, instead of every empty tick in between.
+ */
+class TickBitmap {
+
+    private final long[] words;
+    private final long[] summary;
+
+    TickBitmap(int ticks) {
+        this.words = new long[(ticks + 63) >>> 6];
+        this.summary = new long[(words.length + 63) >>> 6];
+    }
+
+    void set(int tick) {
+        int word = tick >>> 6;
+        words[word] |= 1L << tick;
+        summary[word >>> 6] |= 1L << word;
+    }
+
+    void clear(int tick) {
+        int word = tick >>> 6;
+        words[word] &= ~(1L << tick);
+        if (words[word] == 0) {
+            summary[word >>> 6] &= ~(1L << word);
+        }
+    }
+
+    // Lowest occupied tick above from, or -1
+    int nextAbove(int from) {
+        int tick = from + 1;
+        int word = tick >>> 6;
+        if (word >= words.length) return -1;
+
+        long bits = words[word] & (-1L << tick);
+        if (bits != 0) return (word << 6) + Long.numberOfTrailingZeros(bits);
+
+        int nonEmpty = nextWordAbove(word);
+        return nonEmpty < 0 ? -1 : (nonEmpty << 6) + Long.numberOfTrailingZeros(words[nonEmpty]);
+    }
+
+    // Highest occupied tick below from, or -1
+    int nextBelow(int from) {
+        int tick = from - 1;
+        if (tick < 0) return -1;
+        int word = tick >>> 6;
+
+        long bits = words[word] & (-1L >>> (63 - (tick & 63)));
+        if (bits != 0) return (word << 6) + 63 - Long.numberOfLeadingZeros(bits);
+
+        int nonEmpty = nextWordBelow(word);
+        return nonEmpty < 0 ? -1 : (nonEmpty << 6) + 63 - Long.numberOfLeadingZeros(words[nonEmpty]);
+    }
+
+    private int nextWordAbove(int word) {
+        int from = word + 1;
+        for (int block = from >>> 6; block < summary.length; block++) {
+            long bits = summary[block];
+            if (block == from >>> 6) bits &= -1L << from;
+            if (bits != 0) return (block << 6) + Long.numberOfTrailingZeros(bits);
+        }
+        return -1;
+    }
+
+    private int nextWordBelow(int word) {
+        int from = word - 1;
+        if (from < 0) return -1;
+        for (int block = from >>> 6; block >= 0; block--) {
+            long bits = summary[block];
+            if (block == from >>> 6) bits &= -1L >>> (63 - (from & 63));
+            if (bits != 0) return (block << 6) + 63 - Long.numberOfLeadingZeros(bits);
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,37 @@
+package com.machinecoding.CurrecyExchangeProblem;
+
+import java.util.*;
+
+// A profitable loop; currencies start and end with the same symbol
+class ArbitrageCycle {
+    List<String> currencies;
+    double profitFactor; // product of the rates around the loop, > 1
+
+    ArbitrageCycle(List<String> currencies, double profitFactor) {
+        this.currencies = currencies;
+        this.profitFactor = profitFactor;
+    }
+
+    /**
+     * Recovers the cycle behind a vertex that could still be relaxed after n-1 Bellman-Ford passes.
+     * Walking n parents back is guaranteed to land on the cycle; from there the parents go round it.
+     * Returns the cycle in travel order, closed (first == last), or null if the parent chain runs out.
+     */
+    static List<Integer> fromParents(int[] parent, int relaxed, int n) {
+        int x = relaxed;
+        for (int i = 0; i < n && x != -1; i++) x = parent[x];
+        if (x == -1) return null;
+
+        LinkedList<Integer> cycle = new LinkedList<>();
+        cycle.addFirst(x);
+        for (int y = parent[x]; y != x; y = parent[y]) {
+            cycle.addFirst(y);
+        }
+        cycle.addFirst(x);
+        return cycle;
+    }
+
+    public String toString() {
+        return "ArbitrageCycle{" + String.join(" -> ", currencies) + ", profitFactor=" + profitFactor + '}';
+    }
+}
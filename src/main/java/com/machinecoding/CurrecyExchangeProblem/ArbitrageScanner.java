@@ -0,0 +1,298 @@
+package com.machinecoding.CurrecyExchangeProblem;
+
+import java.util.*;
+
+interface ArbitrageListener {
+    void onArbitrage(ArbitrageCycle cycle);
+}
+
+/**
+ * Watches a stream of rate ticks for arbitrage.
+ * <p>
+ * Any loop a tick creates must use the ticked edge u -> v, so on each tick the scanner only looks
+ * for ways back from v to u in at most {@code maxLegs - 1} hops (a DP over hop count that touches
+ * nothing outside that neighbourhood) and alerts on every one that yields more than it started
+ * with: for each hop count and each last currency before u, the best way round through it.
+ * {@link #scanAll()} runs the same search through every edge, plus a Bellman-Ford sweep for loops
+ * of any length, e.g. on start-up.
+ */
+public class ArbitrageScanner {
+
+    // Ignore loops whose log-profit is within floating point noise of zero
+    private static final double EPSILON = 1e-12;
+
+    private final int maxLegs;
+    private final ArbitrageListener listener;
+    private final CurrencyInterner interner = new CurrencyInterner();
+
+    // Edge store, indexed by edge id; weights are -log(rate)
+    private int[] edgeFrom = new int[16];
+    private int[] edgeTo = new int[16];
+    private double[] edgeWeight = new double[16];
+    private int edgeCount;
+    private final Map<Long, Integer> edgeIds = new HashMap<>();
+    private final List<IntList> outEdges = new ArrayList<>();
+
+    // Hop DP scratch: best[k][x] is the lightest walk from the ticked target to x in exactly k hops
+    private double[][] best = new double[0][];
+    private int[][] via = new int[0][];
+    private final IntList[] frontier;
+    private final IntList closingHops = new IntList();
+    private final IntList closingEdges = new IntList();
+
+    public ArbitrageScanner(int maxLegs, ArbitrageListener listener) {
+        if (maxLegs < 2) {
+            throw new IllegalArgumentException("A loop needs at least two legs");
+        }
+        this.maxLegs = maxLegs;
+        this.listener = listener;
+        this.frontier = new IntList[maxLegs];
+        for (int k = 0; k < maxLegs; k++) frontier[k] = new IntList();
+    }
+
+    /**
+     * Applies one tick and reports every profitable loop through it.
+     * Returns the loops that were alerted, most profitable first; empty if none.
+     */
+    public List<ArbitrageCycle> onRate(Edge rate) {
+        int edge = upsert(rate);
+
+        List<ArbitrageCycle> cycles = new ArrayList<>();
+        loopsThrough(edge, new HashSet<>(), cycles);
+        cycles.sort(Comparator.comparingDouble((ArbitrageCycle cycle) -> cycle.profitFactor).reversed());
+
+        if (listener != null) {
+            for (ArbitrageCycle cycle : cycles) listener.onArbitrage(cycle);
+        }
+        return cycles;
+    }
+
+    // Adds the profitable loops of at most maxLegs legs through the edge that are not in seen yet
+    private void loopsThrough(int edge, Set<String> seen, List<ArbitrageCycle> cycles) {
+        int u = edgeFrom[edge], v = edgeTo[edge];
+
+        ensureScratch();
+        best[0][v] = 0;
+        frontier[0].add(v);
+
+        // Expand only from currencies reached in the previous hop
+        for (int k = 1; k < maxLegs; k++) {
+            IntList previous = frontier[k - 1];
+            for (int i = 0; i < previous.size; i++) {
+                int x = previous.items[i];
+                IntList out = outEdges.get(x);
+                for (int j = 0; j < out.size; j++) {
+                    int e = out.items[j];
+                    int y = edgeTo[e];
+                    double candidate = best[k - 1][x] + edgeWeight[e];
+                    // Layer k - 1 is final, so each edge into u closes its own loop
+                    if (y == u && candidate + edgeWeight[edge] < -EPSILON) {
+                        closingHops.add(k);
+                        closingEdges.add(e);
+                    }
+                    if (candidate < best[k][y]) {
+                        if (best[k][y] == Double.POSITIVE_INFINITY) frontier[k].add(y);
+                        best[k][y] = candidate;
+                        via[k][y] = e;
+                    }
+                }
+            }
+        }
+
+        for (int c = 0; c < closingEdges.size; c++) {
+            // Walk back from the last currency before u to v, then add the ticked and the closing edge
+            int e = closingEdges.items[c];
+            LinkedList<Integer> walk = new LinkedList<>();
+            walk.add(u);
+            int x = edgeFrom[e];
+            for (int k = closingHops.items[c] - 1; k > 0; k--) {
+                walk.addFirst(x);
+                x = edgeFrom[via[k][x]];
+            }
+            walk.addFirst(v);
+            walk.addFirst(u);
+
+            List<Integer> loop = bestSimpleLoop(walk);
+            if (loop != null && seen.add(canonical(loop).toString())) {
+                cycles.add(toCycle(loop));
+            }
+        }
+
+        clearScratch();
+    }
+
+    /**
+     * Full sweep, most profitable first: every loop {@link #onRate} would report for any of the edges,
+     * then Bellman-Ford from a virtual source linked to every currency, which adds the loops behind
+     * the currencies that still relax after n-1 passes. Loops longer than {@code maxLegs} legs are
+     * only found that way, so past that length it finds at least one if any exists, not every one.
+     */
+    public List<ArbitrageCycle> scanAll() {
+        List<ArbitrageCycle> cycles = new ArrayList<>();
+        Set<String> seen = new HashSet<>();
+        for (int e = 0; e < edgeCount; e++) {
+            loopsThrough(e, seen, cycles);
+        }
+
+        int n = interner.size();
+        double[] dist = new double[n]; // all zero: the virtual source reaches everyone for free
+        int[] parent = new int[n];
+        Arrays.fill(parent, -1);
+
+        boolean changed = true;
+        for (int pass = 0; pass < n - 1 && changed; pass++) {
+            changed = false;
+            for (int e = 0; e < edgeCount; e++) {
+                if (dist[edgeFrom[e]] + edgeWeight[e] < dist[edgeTo[e]] - EPSILON) {
+                    dist[edgeTo[e]] = dist[edgeFrom[e]] + edgeWeight[e];
+                    parent[edgeTo[e]] = edgeFrom[e];
+                    changed = true;
+                }
+            }
+        }
+
+        for (int e = 0; changed && e < edgeCount; e++) {
+            if (dist[edgeFrom[e]] + edgeWeight[e] < dist[edgeTo[e]] - EPSILON) {
+                parent[edgeTo[e]] = edgeFrom[e];
+                List<Integer> ids = ArbitrageCycle.fromParents(parent, edgeTo[e], n);
+                if (ids == null) continue;
+
+                // The same loop is found from each of its members
+                List<Integer> rotated = canonical(ids);
+                if (seen.add(rotated.toString())) {
+                    cycles.add(toCycle(rotated));
+                }
+            }
+        }
+        cycles.sort(Comparator.comparingDouble((ArbitrageCycle cycle) -> cycle.profitFactor).reversed());
+        return cycles;
+    }
+
+    // A closed loop rotated to start at its smallest id, so it reads the same from any member
+    private static List<Integer> canonical(List<Integer> loop) {
+        List<Integer> open = loop.subList(0, loop.size() - 1);
+        int start = open.indexOf(Collections.min(open));
+        List<Integer> rotated = new ArrayList<>(open.subList(start, open.size()));
+        rotated.addAll(open.subList(0, start));
+        rotated.add(rotated.get(0));
+        return rotated;
+    }
+
+    // A closed walk with negative weight contains at least one negative simple loop; keep the best one
+    private List<Integer> bestSimpleLoop(List<Integer> walk) {
+        List<Integer> stack = new ArrayList<>();
+        Map<Integer, Integer> position = new HashMap<>();
+        List<Integer> bestLoop = null;
+        double bestWeight = -EPSILON;
+
+        for (int x : walk) {
+            Integer at = position.get(x);
+            if (at != null) {
+                List<Integer> loop = new ArrayList<>(stack.subList(at, stack.size()));
+                loop.add(x);
+                double weight = weight(loop);
+                if (weight < bestWeight) {
+                    bestWeight = weight;
+                    bestLoop = loop;
+                }
+                // Cut the loop out and carry on with the rest of the walk
+                for (int i = stack.size() - 1; i > at; i--) position.remove(stack.remove(i));
+            } else {
+                position.put(x, stack.size());
+                stack.add(x);
+            }
+        }
+        return bestLoop;
+    }
+
+    private double weight(List<Integer> loop) {
+        double total = 0;
+        for (int i = 0; i + 1 < loop.size(); i++) {
+            total += edgeWeight[edgeIds.get(((long) loop.get(i) << 32) | loop.get(i + 1))];
+        }
+        return total;
+    }
+
+    private ArbitrageCycle toCycle(List<Integer> loop) {
+        List<String> currencies = new ArrayList<>();
+        for (int x : loop) currencies.add(interner.name(x));
+        return new ArbitrageCycle(currencies, Math.exp(-weight(loop)));
+    }
+
+    private int upsert(Edge rate) {
+        int u = intern(rate.from), v = intern(rate.to);
+        long key = ((long) u << 32) | v;
+
+        Integer edge = edgeIds.get(key);
+        if (edge == null) {
+            if (edgeCount == edgeFrom.length) {
+                edgeFrom = Arrays.copyOf(edgeFrom, edgeCount * 2);
+                edgeTo = Arrays.copyOf(edgeTo, edgeCount * 2);
+                edgeWeight = Arrays.copyOf(edgeWeight, edgeCount * 2);
+            }
+            edge = edgeCount++;
+            edgeFrom[edge] = u;
+            edgeTo[edge] = v;
+            edgeIds.put(key, edge);
+            outEdges.get(u).add(edge);
+        }
+        edgeWeight[edge] = rate.weight;
+        return edge;
+    }
+
+    private int intern(String currency) {
+        int id = interner.intern(currency);
+        if (id == outEdges.size()) outEdges.add(new IntList());
+        return id;
+    }
+
+    // Grow the DP tables to the current currency count; new cells start unreached
+    private void ensureScratch() {
+        int n = interner.size();
+        if (best.length == 0 || best[0].length < n) {
+            best = new double[maxLegs][n];
+            via = new int[maxLegs][n];
+            for (double[] row : best) Arrays.fill(row, Double.POSITIVE_INFINITY);
+        }
+    }
+
+    // Reset only the cells this tick touched
+    private void clearScratch() {
+        for (int k = 0; k < maxLegs; k++) {
+            IntList reached = frontier[k];
+            for (int i = 0; i < reached.size; i++) best[k][reached.items[i]] = Double.POSITIVE_INFINITY;
+            reached.size = 0;
+        }
+        closingHops.size = 0;
+        closingEdges.size = 0;
+    }
+
+    // Test the logic: stream ticks and time the alert on the tick that opens a loop
+    public static void main(String[] args) {
+        List<ArbitrageCycle> alerts = new ArrayList<>();
+        long[] alertedAt = new long[1];
+        ArbitrageScanner scanner = new ArbitrageScanner(4, cycle -> {
+            alertedAt[0] = System.nanoTime();
+            alerts.add(cycle);
+        });
+
+        scanner.onRate(new Edge("USD", "EUR", 0.9));
+        scanner.onRate(new Edge("EUR", "GBP", 0.8));
+        scanner.onRate(new Edge("GBP", "USD", 1.35));
+        scanner.onRate(new Edge("USD", "JPY", 150));
+        scanner.onRate(new Edge("JPY", "GBP", 0.0048));
+
+        // Warm up the JIT with ticks that open and close the loops
+        for (int i = 0; i < 100_000; i++) {
+            scanner.onRate(new Edge("GBP", "USD", i % 2 == 0 ? 1.30 : 1.45));
+        }
+        scanner.onRate(new Edge("GBP", "USD", 1.35));
+        alerts.clear();
+
+        long start = System.nanoTime();
+        scanner.onRate(new Edge("GBP", "USD", 1.45)); // opens USD -> EUR -> GBP -> USD (1.044) and USD -> JPY -> GBP -> USD (1.044)
+        System.out.println(alerts.size() + " alerts " + alerts + ", the last raised " + (alertedAt[0] - start) / 1_000.0 + " us after the tick");
+
+        System.out.println("Full scan: " + scanner.scanAll());
+    }
+}
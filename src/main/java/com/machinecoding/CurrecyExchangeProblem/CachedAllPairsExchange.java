@@ -0,0 +1,215 @@
+package com.machinecoding.CurrecyExchangeProblem;
+
+import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Immutable all-pairs best-rate table built with Floyd-Warshall over -log(rate) weights.
+ * {@code dist} and {@code next} are flat n*n arrays: row i holds the distances from currency i and
+ * the first hop to take towards each destination. The rates it was built from are remembered by
+ * identity and content hash, so a list changed in place after the build no longer matches.
+ */
+class RateMatrix {
+    final List<Edge> source;
+    final long fingerprint;
+    final CurrencyInterner interner = new CurrencyInterner();
+    final int n;
+    final double[] dist;
+    final int[] next;
+    final boolean hasNegativeCycle;
+
+    RateMatrix(List<Edge> rates) {
+        this.source = rates;
+        this.fingerprint = fingerprint(rates); // before reading the edges, so a concurrent change can only cause a rebuild
+        CsrGraph graph = CsrGraph.build(rates, interner);
+        n = graph.vertexCount;
+        dist = new double[n * n];
+        next = new int[n * n];
+        Arrays.fill(dist, Double.POSITIVE_INFINITY);
+        Arrays.fill(next, -1);
+
+        for (int i = 0; i < n; i++) {
+            dist[i * n + i] = 0;
+            next[i * n + i] = i;
+            for (int e = graph.offsets[i]; e < graph.offsets[i + 1]; e++) {
+                int j = graph.targets[e];
+                if (graph.weights[e] < dist[i * n + j]) {
+                    dist[i * n + j] = graph.weights[e];
+                    next[i * n + j] = j;
+                }
+            }
+        }
+
+        for (int k = 0; k < n; k++) {
+            int rowK = k * n;
+            for (int i = 0; i < n; i++) {
+                int rowI = i * n;
+                double ik = dist[rowI + k];
+                if (ik == Double.POSITIVE_INFINITY) continue;
+                int hop = next[rowI + k];
+                for (int j = 0; j < n; j++) {
+                    double candidate = ik + dist[rowK + j];
+                    if (candidate < dist[rowI + j]) {
+                        dist[rowI + j] = candidate;
+                        next[rowI + j] = hop;
+                    }
+                }
+            }
+        }
+
+        boolean negative = false;
+        for (int i = 0; i < n && !negative; i++) negative = dist[i * n + i] < 0;
+        hasNegativeCycle = negative;
+    }
+
+    static long fingerprint(List<Edge> rates) {
+        long hash = rates.size();
+        for (Edge edge : rates) {
+            hash = 31 * hash + Objects.hashCode(edge.from);
+            hash = 31 * hash + Objects.hashCode(edge.to);
+            hash = 31 * hash + Double.doubleToLongBits(edge.weight);
+        }
+        return hash;
+    }
+
+    // True if this matrix was built from exactly these rates
+    boolean covers(List<Edge> rates, long fingerprint) {
+        return source == rates && this.fingerprint == fingerprint;
+    }
+
+    Result query(String src, String dest) {
+        int s = interner.idOf(src), d = interner.idOf(dest);
+        if (s == -1 || d == -1 || dist[s * n + d] == Double.POSITIVE_INFINITY) {
+            return new Result(-1, new ArrayList<>(), hasNegativeCycle);
+        }
+
+        // A route that can detour through a negative cycle has no best rate
+        if (hasNegativeCycle) {
+            for (int k = 0; k < n; k++) {
+                if (dist[k * n + k] < 0 && dist[s * n + k] != Double.POSITIVE_INFINITY && dist[k * n + d] != Double.POSITIVE_INFINITY) {
+                    return new Result(-1, new ArrayList<>(), true);
+                }
+            }
+        }
+
+        List<String> path = new ArrayList<>();
+        for (int x = s; path.size() <= n; x = next[x * n + d]) {
+            path.add(interner.name(x));
+            if (x == d) break;
+        }
+        return new Result(Math.exp(-dist[s * n + d]), path, hasNegativeCycle);
+    }
+}
+
+/**
+ * Answers best-rate queries from a precomputed all-pairs matrix: an O(1) lookup plus walking the
+ * next-hop table for the path. When rates change the matrix is rebuilt on a background thread and
+ * swapped in atomically; queries keep being served from the previous matrix until then. Bursts of
+ * rate updates are coalesced into one rebuild over the latest rates.
+ * <p>
+ * A query that brings its own rates is served from whichever matrix was built from that same list
+ * with the same contents, so repeated queries over one list cost a hash of the edges plus the
+ * lookup. Any other list builds a matrix for it, which the following queries then hit.
+ */
+public class CachedAllPairsExchange implements ICurrencyExchange, AutoCloseable {
+
+    private volatile RateMatrix matrix;
+    private volatile RateMatrix queried; // Built for the last rates passed to the three-argument query
+
+    private final AtomicReference<List<Edge>> latestRates = new AtomicReference<>();
+    private final AtomicBoolean refreshScheduled = new AtomicBoolean();
+    private final ExecutorService refresher = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "rate-matrix-refresh");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public CachedAllPairsExchange(List<Edge> rates) {
+        this.matrix = new RateMatrix(rates);
+        this.latestRates.set(rates);
+    }
+
+    // Schedules a background rebuild, also for a list changed in place; returns immediately
+    public void updateRates(List<Edge> rates) {
+        latestRates.set(rates);
+        if (refreshScheduled.compareAndSet(false, true)) {
+            refresher.execute(this::refresh);
+        }
+    }
+
+    private void refresh() {
+        // Clear the flag before reading, so an update racing with this rebuild schedules another one
+        refreshScheduled.set(false);
+        matrix = new RateMatrix(latestRates.get());
+    }
+
+    // Served from a matrix built from these rates, building one first on a miss
+    @Override
+    public Result bestExchangeResult(List<Edge> rates, String src, String dest) {
+        long fingerprint = RateMatrix.fingerprint(rates);
+        RateMatrix current = matrix;
+        if (current.covers(rates, fingerprint)) {
+            return current.query(src, dest);
+        }
+        RateMatrix cached = queried;
+        if (cached == null || !cached.covers(rates, fingerprint)) {
+            cached = new RateMatrix(rates);
+            queried = cached;
+        }
+        return cached.query(src, dest);
+    }
+
+    // Served from the current matrix, which may still hold rates from before the latest update
+    public Result bestExchangeResult(String src, String dest) {
+        return matrix.query(src, dest);
+    }
+
+    @Override
+    public void close() {
+        refresher.shutdownNow();
+    }
+
+    // Test the logic: many cached queries, then a rate change picked up in the background
+    public static void main(String[] args) throws InterruptedException {
+        List<Edge> rates = CurrencyExchangeBenchmark.randomRates(200, 20_000, 7);
+
+        long start = System.nanoTime();
+        try (CachedAllPairsExchange exchange = new CachedAllPairsExchange(rates)) {
+            System.out.printf("Matrix built in %.1f ms%n", (System.nanoTime() - start) / 1e6);
+
+            int queries = 100_000;
+            Random random = new Random(1);
+            start = System.nanoTime();
+            for (int i = 0; i < queries; i++) {
+                exchange.bestExchangeResult("C" + random.nextInt(200), "C" + random.nextInt(200));
+            }
+            System.out.printf("%d queries in %.1f ms%n", queries, (System.nanoTime() - start) / 1e6);
+
+            Result before = exchange.bestExchangeResult("C0", "C199");
+            System.out.println("C0 -> C199 before: " + before.bestRate + " " + before.path);
+
+            // A slightly better direct quote appears
+            List<Edge> updated = new ArrayList<>(rates);
+            updated.add(new Edge("C0", "C199", before.bestRate * 1.001));
+            exchange.updateRates(updated);
+
+            while (exchange.matrix.source != updated) Thread.sleep(1);
+            Result after = exchange.bestExchangeResult("C0", "C199");
+            System.out.println("C0 -> C199 after:  " + after.bestRate + " " + after.path);
+
+            // The interface query hits the same matrix, and misses once the list changes in place
+            queries = 10_000;
+            start = System.nanoTime();
+            for (int i = 0; i < queries; i++) {
+                exchange.bestExchangeResult(updated, "C" + random.nextInt(200), "C" + random.nextInt(200));
+            }
+            System.out.printf("%d queries with their rates in %.1f ms%n", queries, (System.nanoTime() - start) / 1e6);
+            updated.set(updated.size() - 1, new Edge("C0", "C199", before.bestRate / 2)); // the quote is pulled back
+            Result changed = exchange.bestExchangeResult(updated, "C0", "C199");
+            System.out.println("C0 -> C199 changed: " + changed.bestRate + " " + changed.path);
+        }
+    }
+}
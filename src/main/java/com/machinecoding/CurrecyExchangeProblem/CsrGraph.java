@@ -0,0 +1,81 @@
+package com.machinecoding.CurrecyExchangeProblem;
+
+import java.util.*;
+
+/**
+ * Compressed sparse row adjacency: the outgoing edges of currency {@code u} are
+ * {@code targets[offsets[u] .. offsets[u + 1])} with matching {@code weights} (-log(rate)).
+ * Everything a relaxation loop touches is a primitive array, laid out in source order.
+ * {@code inputIndex} maps each slot back to the position of its edge in the input list.
+ */
+class CsrGraph {
+    final int vertexCount;
+    final int[] offsets;
+    final int[] targets;
+    final double[] weights;
+    final int[] inputIndex;
+
+    private CsrGraph(int vertexCount, int[] offsets, int[] targets, double[] weights, int[] inputIndex) {
+        this.vertexCount = vertexCount;
+        this.offsets = offsets;
+        this.targets = targets;
+        this.weights = weights;
+        this.inputIndex = inputIndex;
+    }
+
+    static CsrGraph build(List<Edge> rates, CurrencyInterner interner) {
+        int m = rates.size();
+        int[] from = new int[m];
+        int[] to = new int[m];
+        for (int i = 0; i < m; i++) {
+            Edge e = rates.get(i);
+            from[i] = interner.intern(e.from);
+            to[i] = interner.intern(e.to);
+        }
+
+        int n = interner.size();
+        int[] offsets = new int[n + 1];
+        for (int i = 0; i < m; i++) offsets[from[i] + 1]++;
+        for (int u = 0; u < n; u++) offsets[u + 1] += offsets[u];
+
+        // Counting sort by source, keeping input order within a source
+        int[] cursor = Arrays.copyOf(offsets, n);
+        int[] targets = new int[m];
+        double[] weights = new double[m];
+        int[] inputIndex = new int[m];
+        for (int i = 0; i < m; i++) {
+            int slot = cursor[from[i]]++;
+            targets[slot] = to[i];
+            weights[slot] = rates.get(i).weight;
+            inputIndex[slot] = i;
+        }
+
+        return new CsrGraph(n, offsets, targets, weights, inputIndex);
+    }
+
+    /**
+     * Same edges grouped by target: in the result, {@code targets[offsets[v] .. offsets[v + 1])} are the
+     * currencies with an edge into {@code v}, ordered by source.
+     */
+    CsrGraph transpose() {
+        int m = targets.length;
+        int[] inOffsets = new int[vertexCount + 1];
+        for (int e = 0; e < m; e++) inOffsets[targets[e] + 1]++;
+        for (int v = 0; v < vertexCount; v++) inOffsets[v + 1] += inOffsets[v];
+
+        int[] cursor = Arrays.copyOf(inOffsets, vertexCount);
+        int[] sources = new int[m];
+        double[] inWeights = new double[m];
+        int[] inInputIndex = new int[m];
+        for (int u = 0; u < vertexCount; u++) {
+            for (int e = offsets[u]; e < offsets[u + 1]; e++) {
+                int slot = cursor[targets[e]]++;
+                sources[slot] = u;
+                inWeights[slot] = weights[e];
+                inInputIndex[slot] = inputIndex[e];
+            }
+        }
+
+        return new CsrGraph(vertexCount, inOffsets, sources, inWeights, inInputIndex);
+    }
+}
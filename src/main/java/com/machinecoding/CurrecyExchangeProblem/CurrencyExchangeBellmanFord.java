@@ -0,0 +1,82 @@
+package com.machinecoding.CurrecyExchangeProblem;
+
+import java.util.*;
+
+class CurrencyExchangeBellmanFord implements ICurrencyExchange {
+
+    @Override
+    public Result bestExchangeResult(List<Edge> rates, String src, String dest) {
+        CurrencyInterner interner = new CurrencyInterner(); // To map currencies to array indexes
+        CsrGraph graph = CsrGraph.build(rates, interner);
+        int s = interner.idOf(src), d = interner.idOf(dest);
+        if (s == -1 || d == -1) {
+            return new Result(-1, new ArrayList<>(), false);
+        }
+
+        // Initialize distances and parents
+        int n = graph.vertexCount;
+        double[] dist = new double[n]; // To store distances
+        int[] parent = new int[n]; // To reconstruct the path
+        Arrays.fill(dist, Double.POSITIVE_INFINITY);
+        Arrays.fill(parent, -1);
+        dist[s] = 0.0;
+
+        // Bellman-Ford algorithm: Relax edges n-1 times, stopping early once a pass changes nothing
+        for (int i = 0; i < n - 1; i++) {
+            if (relaxAll(graph, dist, parent) == -1) break;
+        }
+
+        // Step 1: Check for negative cycle, and recover it from the parents of whatever still relaxes.
+        // The extra pass runs on copies, so the rate and path below come from the n-1 passes.
+        int[] cycleParent = parent.clone();
+        int relaxed = relaxAll(graph, dist.clone(), cycleParent);
+        boolean hasNegativeCycle = relaxed != -1;
+        List<String> cycle = new ArrayList<>();
+        if (hasNegativeCycle) {
+            List<Integer> ids = ArbitrageCycle.fromParents(cycleParent, relaxed, n);
+            if (ids != null) {
+                for (int id : ids) cycle.add(interner.name(id));
+            }
+        }
+
+        // Step 2: If no path exists
+        if (dist[d] == Double.POSITIVE_INFINITY) {
+            Result result = new Result(-1, new ArrayList<>(), hasNegativeCycle);
+            result.arbitrageCycle = cycle;
+            return result;
+        }
+
+        // Step 3: Reconstruct the path from dest -> src; with a negative cycle the parent chain can loop,
+        // so never walk more than n steps
+        LinkedList<String> path = new LinkedList<>();
+        for (int current = d, steps = 0; current != -1 && steps < n; current = parent[current], steps++) {
+            path.addFirst(interner.name(current)); // Insert at beginning
+            if (current == s) break;
+        }
+
+        // Step 4: Convert -log(rate) back to rate using exp(antilog)
+        double rate = Math.exp(-dist[d]);
+
+        Result result = new Result(rate, path, hasNegativeCycle);
+        result.arbitrageCycle = cycle;
+        return result;
+    }
+
+    // One pass over every edge; returns the last currency whose distance improved, or -1 if none did
+    private int relaxAll(CsrGraph graph, double[] dist, int[] parent) {
+        int changed = -1;
+        for (int u = 0; u < graph.vertexCount; u++) {
+            if (dist[u] == Double.POSITIVE_INFINITY) continue;
+            for (int e = graph.offsets[u]; e < graph.offsets[u + 1]; e++) {
+                int v = graph.targets[e];
+                if (dist[u] + graph.weights[e] < dist[v]) {
+                    dist[v] = dist[u] + graph.weights[e];
+                    parent[v] = u;
+                    changed = v;
+                }
+            }
+        }
+        return changed;
+    }
+
+}
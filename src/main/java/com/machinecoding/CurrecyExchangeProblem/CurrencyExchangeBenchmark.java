@@ -0,0 +1,102 @@
+package com.machinecoding.CurrecyExchangeProblem;
+
+import java.util.*;
+
+/**
+ * Map-based Bellman-Ford as it was before the move to interned ids and CSR arrays, kept only as the
+ * benchmark baseline. Path reconstruction is left out: its parent map was keyed the wrong way round
+ * and can loop, and the relaxation passes are what is being compared. The passes follow the CSR
+ * version exactly (skip unreached currencies, stop once a pass changes nothing, one more pass on a
+ * copy for the negative-cycle check), so the benchmark measures only the change of data layout.
+ */
+class MapBasedBellmanFord {
+
+    double bestRate(List<Edge> rates, String src, String dest) {
+        Set<String> currencies = new HashSet<>();
+        for (Edge e : rates) {
+            currencies.add(e.from);
+            currencies.add(e.to);
+        }
+
+        Map<String, Double> dist = new HashMap<>();
+        for (String c : currencies) {
+            dist.put(c, Double.POSITIVE_INFINITY);
+        }
+        dist.put(src, 0.0);
+
+        int n = currencies.size();
+        for (int i = 0; i < n - 1; i++) {
+            if (!relaxAll(rates, dist)) break;
+        }
+        relaxAll(rates, new HashMap<>(dist)); // The negative-cycle check; only its cost matters here
+
+        return dist.get(dest) == Double.POSITIVE_INFINITY ? -1 : Math.exp(-dist.get(dest));
+    }
+
+    // One pass over every edge; returns true if any distance improved
+    private boolean relaxAll(List<Edge> rates, Map<String, Double> dist) {
+        boolean changed = false;
+        for (Edge e : rates) {
+            double from = dist.get(e.from);
+            if (from == Double.POSITIVE_INFINITY) continue;
+            if (from + e.weight < dist.get(e.to)) {
+                dist.put(e.to, from + e.weight);
+                changed = true;
+            }
+        }
+        return changed;
+    }
+}
+
+/**
+ * Times the map-based Bellman-Ford against the CSR one on a 200 currency / 20k pair graph; both run
+ * the same passes, so the speed-up is the data layout alone.
+ * The pom has no JMH dependency, so this is a plain warm-up-then-measure loop with System.nanoTime.
+ */
+public class CurrencyExchangeBenchmark {
+
+    // Rates derived from one price per currency, minus a spread, so there is no arbitrage cycle
+    static List<Edge> randomRates(int currencies, int pairs, long seed) {
+        Random random = new Random(seed);
+        double[] prices = new double[currencies];
+        for (int i = 0; i < currencies; i++) prices[i] = 0.01 + random.nextDouble() * 100;
+
+        Set<Long> seen = new HashSet<>();
+        List<Edge> rates = new ArrayList<>();
+        while (rates.size() < pairs) {
+            int from = random.nextInt(currencies), to = random.nextInt(currencies);
+            if (from == to || !seen.add((long) from * currencies + to)) continue;
+            double spread = 1 - random.nextDouble() * 0.01;
+            rates.add(new Edge("C" + from, "C" + to, prices[from] / prices[to] * spread));
+        }
+        return rates;
+    }
+
+    public static void main(String[] args) {
+        List<Edge> rates = randomRates(200, 20_000, 7);
+        String src = "C0", dest = "C199";
+
+        MapBasedBellmanFord mapBased = new MapBasedBellmanFord();
+        ICurrencyExchange csr = new CurrencyExchangeBellmanFord();
+
+        int warmup = 3, iterations = 10;
+        double expected = 0, actual = 0;
+
+        for (int i = 0; i < warmup; i++) {
+            expected = mapBased.bestRate(rates, src, dest);
+            actual = csr.bestExchangeResult(rates, src, dest).bestRate;
+        }
+
+        long start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) expected = mapBased.bestRate(rates, src, dest);
+        long mapNanos = (System.nanoTime() - start) / iterations;
+
+        start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) actual = csr.bestExchangeResult(rates, src, dest).bestRate;
+        long csrNanos = (System.nanoTime() - start) / iterations;
+
+        System.out.printf("map-based: %.3f ms/op  rate=%.6f%n", mapNanos / 1e6, expected);
+        System.out.printf("csr:       %.3f ms/op  rate=%.6f%n", csrNanos / 1e6, actual);
+        System.out.printf("speed-up:  %.1fx%n", (double) mapNanos / csrNanos);
+    }
+}
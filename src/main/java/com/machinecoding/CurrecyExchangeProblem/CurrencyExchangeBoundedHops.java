@@ -0,0 +1,131 @@
+package com.machinecoding.CurrecyExchangeProblem;
+
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+/**
+ * Best rate using at most {@code maxHops} legs, as brokers cap routes at 3-4 legs anyway.
+ * <p>
+ * Instead of enumerating simple paths, this is a DP over hop count: level k holds the best
+ * -log(rate) of reaching each currency in exactly k legs, built only from level k-1, so the cost is
+ * O(maxHops * (V + E)) rather than exponential. Each level is computed pull-style over incoming
+ * edges, with the currencies split into one contiguous range per worker of the given pool; a range
+ * is only written by its own worker and ties keep the first incoming edge, so the answer does not
+ * depend on the pool size.
+ * <p>
+ * Without arbitrage the best walk never revisits a currency, so it is a simple path. If it does
+ * revisit one, the result is flagged with {@code hasNegativeCycle}.
+ */
+public class CurrencyExchangeBoundedHops implements ICurrencyExchange {
+
+    private final int maxHops;
+    private final ForkJoinPool pool;
+
+    public CurrencyExchangeBoundedHops(int maxHops) {
+        this(maxHops, ForkJoinPool.commonPool());
+    }
+
+    public CurrencyExchangeBoundedHops(int maxHops, ForkJoinPool pool) {
+        if (maxHops < 1) {
+            throw new IllegalArgumentException("Need at least one hop");
+        }
+        this.maxHops = maxHops;
+        this.pool = pool;
+    }
+
+    @Override
+    public Result bestExchangeResult(List<Edge> rates, String src, String dest) {
+        CurrencyInterner interner = new CurrencyInterner();
+        CsrGraph incoming = CsrGraph.build(rates, interner).transpose();
+        int s = interner.idOf(src), d = interner.idOf(dest);
+        if (s == -1 || d == -1) {
+            return new Result(-1, new ArrayList<>(), false);
+        }
+        if (s == d) {
+            return new Result(1.0, new ArrayList<>(List.of(src)), false);
+        }
+
+        int n = incoming.vertexCount;
+        double[][] level = new double[maxHops + 1][n];
+        int[][] via = new int[maxHops + 1][n];
+        for (double[] row : level) Arrays.fill(row, Double.POSITIVE_INFINITY);
+        level[0][s] = 0;
+
+        int ranges = Math.min(pool.getParallelism(), n);
+        for (int k = 1; k <= maxHops; k++) {
+            double[] previous = level[k - 1], current = level[k];
+            int[] parent = via[k];
+            if (ranges == 1) {
+                relax(incoming, previous, current, parent, 0, n);
+                continue;
+            }
+            List<ForkJoinTask<?>> tasks = new ArrayList<>(ranges);
+            for (int r = 0; r < ranges; r++) {
+                int from = (int) ((long) n * r / ranges), to = (int) ((long) n * (r + 1) / ranges);
+                tasks.add(ForkJoinTask.adapt(() -> relax(incoming, previous, current, parent, from, to)));
+            }
+            pool.invoke(ForkJoinTask.adapt(() -> ForkJoinTask.invokeAll(tasks)));
+        }
+
+        int bestHops = -1;
+        double bestWeight = Double.POSITIVE_INFINITY;
+        for (int k = 1; k <= maxHops; k++) {
+            if (level[k][d] < bestWeight) {
+                bestWeight = level[k][d];
+                bestHops = k;
+            }
+        }
+        if (bestHops == -1) {
+            return new Result(-1, new ArrayList<>(), false);
+        }
+
+        // Walk the levels back from the destination
+        LinkedList<String> path = new LinkedList<>();
+        Set<Integer> seen = new HashSet<>();
+        boolean revisits = false;
+        int x = d;
+        for (int k = bestHops; k >= 0; k--) {
+            path.addFirst(interner.name(x));
+            revisits |= !seen.add(x);
+            if (k > 0) x = via[k][x];
+        }
+        return new Result(Math.exp(-bestWeight), path, revisits);
+    }
+
+    // Fills one level for currencies [from, to) from the previous level
+    private static void relax(CsrGraph incoming, double[] previous, double[] current, int[] parent, int from, int to) {
+        for (int y = from; y < to; y++) {
+            double best = Double.POSITIVE_INFINITY;
+            for (int e = incoming.offsets[y]; e < incoming.offsets[y + 1]; e++) {
+                int x = incoming.targets[e];
+                double candidate = previous[x] + incoming.weights[e];
+                if (candidate < best) {
+                    best = candidate;
+                    parent[y] = x;
+                }
+            }
+            current[y] = best;
+        }
+    }
+
+    // Test the logic: a 200 currency / 20k pair graph, where full backtracking would never finish
+    public static void main(String[] args) {
+        List<Edge> rates = CurrencyExchangeBenchmark.randomRates(200, 20_000, 7);
+        ICurrencyExchange bellmanFord = new CurrencyExchangeBellmanFord();
+
+        for (int threads : new int[]{1, 4}) {
+            ForkJoinPool pool = new ForkJoinPool(threads);
+            ICurrencyExchange boundedHops = new CurrencyExchangeBoundedHops(4, pool);
+            for (int i = 0; i < 5; i++) boundedHops.bestExchangeResult(rates, "C0", "C199");
+
+            long start = System.nanoTime();
+            Result result = boundedHops.bestExchangeResult(rates, "C0", "C199");
+            System.out.printf("Bounded hops (4), %d threads: %.6f %s in %.2f ms%n", threads, result.bestRate, result.path, (System.nanoTime() - start) / 1e6);
+            pool.shutdown();
+        }
+
+        Result unbounded = bellmanFord.bestExchangeResult(rates, "C0", "C199");
+        System.out.printf("Bellman-Ford:     %.6f %s%n", unbounded.bestRate, unbounded.path);
+    }
+}
@@ -3,147 +3,83 @@ package com.machinecoding.CurrecyExchangeProblem;
 import java.util.*;
 
 
-// Edge class to represent currency exchange rate
-class Edge{
-    String from, to;
-    double weight;
-
-    Edge(String from, String to, double weight) {
-        this.from = from;
-        this.to = to;
-        this.weight = -Math.log(weight); // Convert rate to -log(rate) for Bellman-Ford
-    }
-}
-
-
-// Result class to store the best rate and path and if there's a negative cycle
-class Result {
-    double bestRate;
-    List<String> path;
-    boolean hasNegativeCycle;
-
-    Result(double bestRate, List<String> path, boolean hasNegativeCycle) {
-        this.bestRate = bestRate;
-        this.path = path;
-        this.hasNegativeCycle = hasNegativeCycle;
-    }
-}
-
-
-interface ICurrencyExchange {
-    Result bestExchangeResult(List<Edge> rates, String src, String dest);
-}
-
 class CurrencyExchangeBackTracking implements ICurrencyExchange {
     @Override
     public Result bestExchangeResult(List<Edge> rates, String src, String dest) {
 
         // Step 1: Create a graph from the rates
-        Map<String, List<Edge>> graph = new HashMap<>();
-        for (Edge rate : rates) {
-            graph.computeIfAbsent(rate.from, _ -> new ArrayList<>()).add(rate);
+        CurrencyInterner interner = new CurrencyInterner();
+        CsrGraph graph = CsrGraph.build(rates, interner);
+        int s = interner.idOf(src), d = interner.idOf(dest);
+        if (s == -1 || d == -1) {
+            return new Result(-1, new ArrayList<>(), false);
+        }
+
+        // Convert -log(rate) back to rates once instead of on every step of the search
+        double[] edgeRates = new double[graph.weights.length];
+        for (int e = 0; e < edgeRates.length; e++) {
+            edgeRates[e] = Math.exp(-graph.weights[e]);
         }
 
         // Step 2: Perform DFS to find all paths from src to dest
-        List<String> path = new ArrayList<>();
-        Set<String> visited = new HashSet<>();
-        double bestRate = dfs(graph, src, dest, visited, path, 1.0);
+        Search search = new Search(graph, edgeRates, d);
+        search.dfs(s, 0, 1.0);
 
         // Step 3: If no path exists
-        if (bestRate == -1) {
+        if (search.bestRate == -1) {
             return new Result(-1, new ArrayList<>(), false);
         }
 
-        return new Result(bestRate, path, false);
-    }
-
-    private double dfs(Map<String, List<Edge>> graph, String src, String dest, Set<String> visited, List<String> path, double v) {
-
-        visited.add(src);
-        path.add(src);
-
-        if (src.equals(dest)) {
-            return v;
-        }
-
-        double bestRate = -1;
-
-        for (Edge edge : graph.getOrDefault(src, new ArrayList<>())) {
-            if (!visited.contains(edge.to)) {
-                double rate = dfs(graph, edge.to, dest, visited, path, v * Math.exp(-edge.weight));
-                if (rate > bestRate) {
-                    bestRate = rate;
-                }
-            }
+        List<String> path = new ArrayList<>();
+        for (int i = 0; i < search.bestLength; i++) {
+            path.add(interner.name(search.bestPath[i]));
         }
-
-        visited.remove(src);
-        path.remove(path.size() - 1);
-
-        return bestRate;
+        return new Result(search.bestRate, path, false);
     }
-}
-
-class CurrencyExchangeBellmanFord implements ICurrencyExchange {
 
-    @Override
-    public Result bestExchangeResult(List<Edge> rates, String src, String dest) {
-        Set<String> currencies = new HashSet<>(); // To store unique currencies
-        for (Edge e : rates) {
-            currencies.add(e.from);
-            currencies.add(e.to);
-        }
-
-        // Initialize distances and parents
-        Map<String, Double> dist = new HashMap<>(); // To store distances
-        Map<String, String> parent = new HashMap<>(); // To reconstruct the path
+    // DFS state over int ids; the current path is a fixed array indexed by depth
+    private static class Search {
+        final CsrGraph graph;
+        final double[] edgeRates;
+        final int dest;
+        final boolean[] visited;
+        final int[] path;
+        final int[] bestPath;
+        int bestLength;
+        double bestRate = -1;
 
-        for (String c : currencies) {
-            dist.put(c, Double.POSITIVE_INFINITY);
-            parent.put(c, null);
+        Search(CsrGraph graph, double[] edgeRates, int dest) {
+            this.graph = graph;
+            this.edgeRates = edgeRates;
+            this.dest = dest;
+            this.visited = new boolean[graph.vertexCount];
+            this.path = new int[graph.vertexCount];
+            this.bestPath = new int[graph.vertexCount];
         }
-        dist.put(src, 0.0);
 
-        int n = currencies.size();
+        void dfs(int u, int depth, double v) {
+            path[depth] = u;
 
-        // Bellman-Ford algorithm: Relax edges n-1 times
-        for (int i = 0; i < n - 1; i++) {
-            for(Edge e: rates){
-                if(dist.get(e.from) + e.weight < dist.get(e.to)){
-                    dist.put(e.to, dist.get(e.from) + e.weight);
-                    parent.put(e.from, e.to);
+            if (u == dest) {
+                // Keep a copy of the best path, the working path is overwritten as the search goes on
+                if (v > bestRate) {
+                    bestRate = v;
+                    bestLength = depth + 1;
+                    System.arraycopy(path, 0, bestPath, 0, bestLength);
                 }
+                return;
             }
-        }
 
-        // Step 1: Check for negative cycle
-        boolean hasNegativeCycle = false;
-        for (Edge e : rates) {
-            if (dist.get(e.from) + e.weight < dist.get(e.to)) {
-                hasNegativeCycle = true;
-                break;
+            visited[u] = true;
+            for (int e = graph.offsets[u]; e < graph.offsets[u + 1]; e++) {
+                int next = graph.targets[e];
+                if (!visited[next]) {
+                    dfs(next, depth + 1, v * edgeRates[e]);
+                }
             }
+            visited[u] = false;
         }
-
-        // Step 2: If no path exists
-        if (dist.get(dest) == Double.POSITIVE_INFINITY) {
-            return new Result(-1, new ArrayList<>(), hasNegativeCycle);
-        }
-
-        // Step 3: Reconstruct the path from dest -> src
-        List<String> path = new LinkedList<>();
-        String current = dest;
-        while (current != null) {
-            path.addFirst(current); // Insert at beginning
-            current = parent.get(current);
-        }
-
-        // Step 4: Convert -log(rate) back to rate using exp(antilog)
-        double rate = Math.exp(-dist.get(dest));
-
-        return new Result(rate, path, hasNegativeCycle);
     }
-
 }
 
 public class CurrencyExchangeTest {
@@ -176,6 +112,7 @@ public class CurrencyExchangeTest {
 
         if (result.hasNegativeCycle) {
             System.out.println("Warning: Arbitrage opportunity detected (negative cycle exists)!");
+            System.out.println("Cycle: " + result.arbitrageCycle);
         }
 
 
@@ -186,6 +123,15 @@ public class CurrencyExchangeTest {
             System.out.println("Best rate from " + src + " to " + dest + " is: " + resultFromBT.bestRate);
             System.out.println("Path taken: " + resultFromBT.path);
         }
+
+        Result resultFromHops = new CurrencyExchangeBoundedHops(3).bestExchangeResult(rates, src, dest);
+        System.out.println("\nUsing at most 3 hops:");
+        if (resultFromHops.bestRate == -1) {
+            System.out.println("No conversion path exists!");
+        } else {
+            System.out.println("Best rate from " + src + " to " + dest + " is: " + resultFromHops.bestRate);
+            System.out.println("Path taken: " + resultFromHops.path);
+        }
     }
 
 
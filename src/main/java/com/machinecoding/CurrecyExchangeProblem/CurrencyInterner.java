@@ -0,0 +1,32 @@
+package com.machinecoding.CurrecyExchangeProblem;
+
+import java.util.*;
+
+// Maps currency symbols to dense int ids so the graph algorithms can work on plain arrays
+class CurrencyInterner {
+    private final Map<String, Integer> ids = new HashMap<>();
+    private final List<String> names = new ArrayList<>();
+
+    int intern(String currency) {
+        Integer id = ids.get(currency);
+        if (id == null) {
+            id = names.size();
+            ids.put(currency, id);
+            names.add(currency);
+        }
+        return id;
+    }
+
+    // -1 if the currency has never been interned
+    int idOf(String currency) {
+        return ids.getOrDefault(currency, -1);
+    }
+
+    String name(int id) {
+        return names.get(id);
+    }
+
+    int size() {
+        return names.size();
+    }
+}
@@ -0,0 +1,13 @@
+package com.machinecoding.CurrecyExchangeProblem;
+
+// Edge class to represent currency exchange rate
+class Edge{
+    String from, to;
+    double weight;
+
+    Edge(String from, String to, double weight) {
+        this.from = from;
+        this.to = to;
+        this.weight = -Math.log(weight); // Convert rate to -log(rate) for Bellman-Ford
+    }
+}
@@ -0,0 +1,7 @@
+package com.machinecoding.CurrecyExchangeProblem;
+
+import java.util.*;
+
+interface ICurrencyExchange {
+    Result bestExchangeResult(List<Edge> rates, String src, String dest);
+}
@@ -0,0 +1,256 @@
+package com.machinecoding.CurrecyExchangeProblem;
+
+import java.util.*;
+
+/**
+ * Long-lived currency graph that takes single rate ticks and keeps a shortest-path tree (over
+ * -log(rate) weights) for every source that has been queried.
+ * <p>
+ * A tick only re-relaxes the part of each tree it can affect:
+ * <ul>
+ *     <li>a cheaper edge seeds a queue-based (SPFA) relaxation from its target, which stops as soon
+ *     as nothing improves;</li>
+ *     <li>a dearer edge matters only if it is a tree edge; then just the subtree below it is reset
+ *     and re-seeded from its incoming edges before the same SPFA pass.</li>
+ * </ul>
+ * Queries after that are a path walk. If relaxation hits a negative cycle (an arbitrage loop) the
+ * tree is flagged and rebuilt from scratch on the next tick until the loop is gone.
+ */
+public class IncrementalCurrencyGraph {
+
+    private final Map<String, Integer> ids = new HashMap<>();
+    private final List<String> names = new ArrayList<>();
+
+    // Edge store, indexed by edge id; weights are -log(rate)
+    private int[] edgeFrom = new int[16];
+    private int[] edgeTo = new int[16];
+    private double[] edgeWeight = new double[16];
+    private int edgeCount;
+    private final Map<Long, Integer> edgeIds = new HashMap<>();
+
+    // Per-currency lists of outgoing / incoming edge ids
+    private final List<IntList> outEdges = new ArrayList<>();
+    private final List<IntList> inEdges = new ArrayList<>();
+
+    private final Map<Integer, ShortestPathTree> trees = new HashMap<>();
+
+    // Distances and parent edges from one source
+    class ShortestPathTree {
+        final int source;
+        double[] dist = new double[0];
+        int[] parentEdge = new int[0];
+        boolean hasNegativeCycle;
+
+        // SPFA scratch space, kept between ticks so a small change does not cost O(V) to set up
+        int[] enqueueCount = new int[0];
+        boolean[] queued = new boolean[0];
+        final IntList touched = new IntList();
+
+        ShortestPathTree(int source) {
+            this.source = source;
+            ensureCapacity();
+            rebuild();
+        }
+
+        void ensureCapacity() {
+            int n = names.size();
+            if (dist.length < n) {
+                int old = dist.length;
+                dist = Arrays.copyOf(dist, n);
+                parentEdge = Arrays.copyOf(parentEdge, n);
+                Arrays.fill(dist, old, n, Double.POSITIVE_INFINITY);
+                Arrays.fill(parentEdge, old, n, -1);
+                enqueueCount = Arrays.copyOf(enqueueCount, n);
+                queued = Arrays.copyOf(queued, n);
+            }
+        }
+
+        void rebuild() {
+            Arrays.fill(dist, Double.POSITIVE_INFINITY);
+            Arrays.fill(parentEdge, -1);
+            hasNegativeCycle = false;
+            dist[source] = 0;
+            ArrayDeque<Integer> queue = new ArrayDeque<>();
+            queue.add(source);
+            relax(queue);
+        }
+
+        void onEdgeChanged(int edge, double oldWeight) {
+            ensureCapacity();
+            if (hasNegativeCycle) {
+                rebuild();
+                return;
+            }
+
+            int u = edgeFrom[edge], v = edgeTo[edge];
+            double weight = edgeWeight[edge];
+            ArrayDeque<Integer> queue = new ArrayDeque<>();
+
+            if (weight < oldWeight) {
+                if (dist[u] + weight < dist[v]) {
+                    dist[v] = dist[u] + weight;
+                    parentEdge[v] = edge;
+                    queue.add(v);
+                }
+            } else if (weight > oldWeight && parentEdge[v] == edge) {
+                // Reset the subtree hanging off this edge, then let its incoming edges re-seed it
+                List<Integer> subtree = new ArrayList<>();
+                ArrayDeque<Integer> walk = new ArrayDeque<>();
+                walk.add(v);
+                while (!walk.isEmpty()) {
+                    int x = walk.poll();
+                    subtree.add(x);
+                    IntList out = outEdges.get(x);
+                    for (int i = 0; i < out.size; i++) {
+                        int e = out.items[i];
+                        if (parentEdge[edgeTo[e]] == e) walk.add(edgeTo[e]);
+                    }
+                }
+                for (int x : subtree) {
+                    dist[x] = Double.POSITIVE_INFINITY;
+                    parentEdge[x] = -1;
+                }
+                for (int x : subtree) {
+                    IntList in = inEdges.get(x);
+                    for (int i = 0; i < in.size; i++) {
+                        int e = in.items[i];
+                        double candidate = dist[edgeFrom[e]] + edgeWeight[e];
+                        if (candidate < dist[x]) {
+                            dist[x] = candidate;
+                            parentEdge[x] = e;
+                        }
+                    }
+                    if (dist[x] != Double.POSITIVE_INFINITY) queue.add(x);
+                }
+            }
+
+            relax(queue);
+        }
+
+        // SPFA: without a negative cycle a currency is queued at most once per Bellman-Ford round, so
+        // queueing one more than n times means a cycle is reachable. Relaxations are not counted, as
+        // a currency with many incoming edges can be improved by each of them within a round.
+        private void relax(ArrayDeque<Integer> queue) {
+            int n = names.size();
+            for (int x : queue) queued[x] = true;
+            touched.size = 0;
+
+            while (!queue.isEmpty()) {
+                int u = queue.poll();
+                queued[u] = false;
+                IntList out = outEdges.get(u);
+                for (int i = 0; i < out.size; i++) {
+                    int e = out.items[i];
+                    int v = edgeTo[e];
+                    if (dist[u] + edgeWeight[e] < dist[v]) {
+                        dist[v] = dist[u] + edgeWeight[e];
+                        parentEdge[v] = e;
+                        if (!queued[v]) {
+                            if (enqueueCount[v]++ == 0) touched.add(v);
+                            if (enqueueCount[v] > n) {
+                                hasNegativeCycle = true;
+                                Arrays.fill(queued, false);
+                                break;
+                            }
+                            queued[v] = true;
+                            queue.add(v);
+                        }
+                    }
+                }
+                if (hasNegativeCycle) break;
+            }
+
+            for (int i = 0; i < touched.size; i++) enqueueCount[touched.items[i]] = 0;
+        }
+    }
+
+    private int intern(String currency) {
+        Integer id = ids.get(currency);
+        if (id != null) return id;
+
+        id = names.size();
+        ids.put(currency, id);
+        names.add(currency);
+        outEdges.add(new IntList());
+        inEdges.add(new IntList());
+        return id;
+    }
+
+    public void updateRate(Edge edge) {
+        updateWeight(edge.from, edge.to, edge.weight);
+    }
+
+    public void updateRate(String from, String to, double rate) {
+        updateWeight(from, to, -Math.log(rate));
+    }
+
+    private void updateWeight(String from, String to, double weight) {
+        int u = intern(from), v = intern(to);
+        long key = ((long) u << 32) | v;
+
+        Integer edge = edgeIds.get(key);
+        double oldWeight;
+        if (edge == null) {
+            if (edgeCount == edgeFrom.length) {
+                edgeFrom = Arrays.copyOf(edgeFrom, edgeCount * 2);
+                edgeTo = Arrays.copyOf(edgeTo, edgeCount * 2);
+                edgeWeight = Arrays.copyOf(edgeWeight, edgeCount * 2);
+            }
+            edge = edgeCount++;
+            edgeFrom[edge] = u;
+            edgeTo[edge] = v;
+            edgeIds.put(key, edge);
+            outEdges.get(u).add(edge);
+            inEdges.get(v).add(edge);
+            oldWeight = Double.POSITIVE_INFINITY; // a new edge behaves like an infinitely dear one getting cheaper
+        } else {
+            oldWeight = edgeWeight[edge];
+        }
+        edgeWeight[edge] = weight;
+
+        for (ShortestPathTree tree : trees.values()) {
+            tree.onEdgeChanged(edge, oldWeight);
+        }
+    }
+
+    public Result bestExchangeResult(String src, String dest) {
+        Integer s = ids.get(src), d = ids.get(dest);
+        if (s == null || d == null) {
+            return new Result(-1, new ArrayList<>(), false);
+        }
+
+        ShortestPathTree tree = trees.computeIfAbsent(s, ShortestPathTree::new);
+        if (tree.hasNegativeCycle || tree.dist[d] == Double.POSITIVE_INFINITY) {
+            // Distances are not well defined around an arbitrage loop
+            return new Result(-1, new ArrayList<>(), tree.hasNegativeCycle);
+        }
+
+        LinkedList<String> path = new LinkedList<>();
+        for (int x = d; x != s; x = edgeFrom[tree.parentEdge[x]]) {
+            path.addFirst(names.get(x));
+        }
+        path.addFirst(names.get(s));
+
+        return new Result(Math.exp(-tree.dist[d]), path, false);
+    }
+
+    // Test the logic: query once, then stream ticks and query again
+    public static void main(String[] args) {
+        IncrementalCurrencyGraph graph = new IncrementalCurrencyGraph();
+        graph.updateRate("USD", "EUR", 0.9);
+        graph.updateRate("EUR", "GBP", 0.8);
+        graph.updateRate("USD", "GBP", 0.65);
+        graph.updateRate("GBP", "JPY", 140);
+
+        Result result = graph.bestExchangeResult("USD", "JPY");
+        System.out.println("Best rate: " + result.bestRate + " path: " + result.path);
+
+        graph.updateRate("USD", "GBP", 0.75); // cheaper direct leg takes over
+        result = graph.bestExchangeResult("USD", "JPY");
+        System.out.println("After USD/GBP tick: " + result.bestRate + " path: " + result.path);
+
+        graph.updateRate("USD", "GBP", 0.6); // back to the EUR route
+        result = graph.bestExchangeResult("USD", "JPY");
+        System.out.println("After second tick: " + result.bestRate + " path: " + result.path);
+    }
+}
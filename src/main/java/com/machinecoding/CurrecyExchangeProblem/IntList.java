@@ -0,0 +1,14 @@
+package com.machinecoding.CurrecyExchangeProblem;
+
+import java.util.*;
+
+// Growable list of ints, e.g. edge ids, without boxing
+class IntList {
+    int[] items = new int[4];
+    int size;
+
+    void add(int value) {
+        if (size == items.length) items = Arrays.copyOf(items, size * 2);
+        items[size++] = value;
+    }
+}
@@ -0,0 +1,316 @@
+package com.machinecoding.CurrecyExchangeProblem;
+
+import java.util.*;
+
+// One pair's order book: levels best rate first, each level's size in units of the from currency
+class DepthEdge {
+    String from, to;
+    double[] rates;
+    double[] sizes;
+
+    DepthEdge(String from, String to, double[] rates, double[] sizes) {
+        if (rates.length == 0 || rates.length != sizes.length) {
+            throw new IllegalArgumentException("Every depth level needs a rate and a size");
+        }
+        this.from = from;
+        this.to = to;
+        this.rates = rates;
+        this.sizes = sizes;
+    }
+}
+
+// Part of a quote sent down one path; route.bestRate is the average rate this slice achieved
+class RouteSlice {
+    Result route;
+    double amountIn;
+    double amountOut;
+
+    RouteSlice(Result route, double amountIn, double amountOut) {
+        this.route = route;
+        this.amountIn = amountIn;
+        this.amountOut = amountOut;
+    }
+
+    public String toString() {
+        return "RouteSlice{" + route.path + ", in=" + amountIn + ", out=" + amountOut + ", rate=" + route.bestRate + '}';
+    }
+}
+
+class SplitQuote {
+    double notional;
+    double received;
+    List<RouteSlice> slices;
+
+    SplitQuote(double notional, double received, List<RouteSlice> slices) {
+        this.notional = notional;
+        this.received = received;
+        this.slices = slices;
+    }
+
+    public String toString() {
+        return "SplitQuote{notional=" + notional + ", received=" + received + ", slices=" + slices + '}';
+    }
+}
+
+/**
+ * Size-aware routing over pairs with finite depth.
+ * <p>
+ * A quote is filled greedily in equal slices: each slice goes down the path with the best
+ * marginal rate (hop-bounded DP over -log of each pair's current level rate), and walking it
+ * through the ladders eats into their depth, so the next slice sees worse rates on the pairs it
+ * used and may take another route. Slices that end up on the same path are merged. A slice a
+ * path cannot fully absorb is cut down to what fits, and an exhausted pair drops out of the graph.
+ */
+public class LiquidityRouter implements ICurrencyExchange {
+
+    private final List<DepthEdge> depth;
+    private final CurrencyInterner interner = new CurrencyInterner();
+    private final CsrGraph graph;
+    private final int maxHops;
+    private final int slices;
+
+    public LiquidityRouter(List<DepthEdge> depth, int maxHops, int slices) {
+        if (maxHops < 1 || slices < 1) {
+            throw new IllegalArgumentException("Need at least one hop and one slice");
+        }
+        this.depth = depth;
+        this.maxHops = maxHops;
+        this.slices = slices;
+
+        List<Edge> topOfBook = new ArrayList<>();
+        for (DepthEdge edge : depth) {
+            topOfBook.add(new Edge(edge.from, edge.to, edge.rates[0]));
+        }
+        this.graph = CsrGraph.build(topOfBook, interner);
+    }
+
+    // Consumption of each pair's ladder during one quote, indexed by CSR slot
+    private class QuoteState {
+        final int[] level = new int[graph.targets.length];
+        final double[] used = new double[graph.targets.length];
+        final double[] marginal = graph.weights.clone();
+
+        final double[][] best = new double[maxHops + 1][graph.vertexCount];
+        final int[][] viaSlot = new int[maxHops + 1][graph.vertexCount];
+    }
+
+    /**
+     * Hop-bounded best rate over the given scalar rates. Depth is ignored: there is none in a list of
+     * rates. For this router's own books use {@link #bestExchangeResult(String, String)}, and for
+     * sized amounts {@link #quote}.
+     */
+    @Override
+    public Result bestExchangeResult(List<Edge> rates, String src, String dest) {
+        return new CurrencyExchangeBoundedHops(maxHops).bestExchangeResult(rates, src, dest);
+    }
+
+    // Route and rate of one minimal slice over this router's books, i.e. at the top of each book
+    public Result bestExchangeResult(String src, String dest) {
+        int s = interner.idOf(src), d = interner.idOf(dest);
+        if (s == -1 || d == -1) {
+            return new Result(-1, new ArrayList<>(), false);
+        }
+        if (s == d) {
+            return new Result(1.0, new ArrayList<>(List.of(src)), false);
+        }
+        int[] path = bestPath(new QuoteState(), s, d);
+        if (path == null) {
+            return new Result(-1, new ArrayList<>(), false);
+        }
+        double weight = 0;
+        for (int slot : path) weight += graph.weights[slot];
+        return new Result(Math.exp(-weight), currencies(src, path), false);
+    }
+
+    public SplitQuote quote(String src, String dest, double notional) {
+        int s = interner.idOf(src), d = interner.idOf(dest);
+        if (s == -1 || d == -1 || s == d || notional <= 0) {
+            return new SplitQuote(notional, 0, new ArrayList<>());
+        }
+
+        QuoteState state = new QuoteState();
+        Map<List<String>, RouteSlice> merged = new LinkedHashMap<>();
+        double slice = notional / slices;
+        double remaining = notional;
+        double received = 0;
+
+        while (remaining > notional * 1e-12) {
+            int[] path = bestPath(state, s, d);
+            if (path == null) break; // no liquidity left between src and dest
+
+            double amount = Math.min(slice, remaining);
+            if (walk(state, path, amount, false) < 0) {
+                amount = capacity(state, path, amount);
+            }
+            double out = walk(state, path, amount, true);
+
+            remaining -= amount;
+            received += out;
+
+            RouteSlice routeSlice = merged.computeIfAbsent(currencies(src, path), c -> new RouteSlice(new Result(0, c, false), 0, 0));
+            routeSlice.amountIn += amount;
+            routeSlice.amountOut += out;
+            routeSlice.route.bestRate = routeSlice.amountOut / routeSlice.amountIn;
+        }
+
+        return new SplitQuote(notional, received, new ArrayList<>(merged.values()));
+    }
+
+    // Hop-bounded DP over marginal rates; returns the CSR slots of a simple path, or null
+    private int[] bestPath(QuoteState state, int s, int d) {
+        for (double[] row : state.best) Arrays.fill(row, Double.POSITIVE_INFINITY);
+        state.best[0][s] = 0;
+
+        for (int k = 1; k <= maxHops; k++) {
+            double[] previous = state.best[k - 1], current = state.best[k];
+            for (int x = 0; x < graph.vertexCount; x++) {
+                if (previous[x] == Double.POSITIVE_INFINITY) continue;
+                for (int e = graph.offsets[x]; e < graph.offsets[x + 1]; e++) {
+                    double candidate = previous[x] + state.marginal[e];
+                    int y = graph.targets[e];
+                    if (candidate < current[y]) {
+                        current[y] = candidate;
+                        state.viaSlot[k][y] = e;
+                    }
+                }
+            }
+        }
+
+        int hops = -1;
+        double bestWeight = Double.POSITIVE_INFINITY;
+        for (int k = 1; k <= maxHops; k++) {
+            if (state.best[k][d] < bestWeight) {
+                bestWeight = state.best[k][d];
+                hops = k;
+            }
+        }
+        if (hops == -1) return null;
+
+        int[] slots = new int[hops];
+        for (int k = hops, y = d; k >= 1; k--) {
+            slots[k - 1] = state.viaSlot[k][y];
+            y = sourceOf(slots[k - 1]);
+        }
+        return withoutLoops(slots, s);
+    }
+
+    // Cut any loop out of the walk so that no pair is walked twice within one slice
+    private int[] withoutLoops(int[] slots, int s) {
+        List<Integer> kept = new ArrayList<>();
+        Map<Integer, Integer> position = new HashMap<>();
+        position.put(s, 0);
+        for (int i = 0; i < slots.length; i++) {
+            int to = graph.targets[slots[i]];
+            Integer seen = position.get(to);
+            if (seen != null) {
+                while (kept.size() > seen) {
+                    int removed = kept.remove(kept.size() - 1);
+                    position.remove(graph.targets[removed]);
+                }
+                position.put(to, seen);
+            } else {
+                kept.add(slots[i]);
+                position.put(to, kept.size());
+            }
+        }
+        return kept.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    private List<String> currencies(String src, int[] path) {
+        List<String> currencies = new ArrayList<>();
+        currencies.add(src);
+        for (int slot : path) currencies.add(interner.name(graph.targets[slot]));
+        return currencies;
+    }
+
+    private int sourceOf(int slot) {
+        // offsets is sorted, so the source is the last currency whose range starts at or before slot
+        int lo = 0, hi = graph.vertexCount - 1;
+        while (lo < hi) {
+            int mid = (lo + hi + 1) >>> 1;
+            if (graph.offsets[mid] <= slot) lo = mid; else hi = mid - 1;
+        }
+        return lo;
+    }
+
+    /**
+     * Pushes amountIn through the path's ladders. Returns the amount received, or -1 if some pair
+     * runs out of depth. Only updates the consumed depth when commit is set.
+     */
+    private double walk(QuoteState state, int[] path, double amountIn, boolean commit) {
+        double amount = amountIn;
+        for (int slot : path) {
+            DepthEdge edge = depth.get(graph.inputIndex[slot]);
+            int level = state.level[slot];
+            double used = state.used[slot];
+            double out = 0;
+
+            while (amount > 0 && level < edge.rates.length) {
+                double take = Math.min(amount, edge.sizes[level] - used);
+                out += take * edge.rates[level];
+                amount -= take;
+                used += take;
+                if (used >= edge.sizes[level]) {
+                    level++;
+                    used = 0;
+                }
+            }
+            if (amount > amountIn * 1e-12) return -1;
+
+            if (commit) {
+                state.level[slot] = level;
+                state.used[slot] = used;
+                state.marginal[slot] = level < edge.rates.length ? -Math.log(edge.rates[level]) : Double.POSITIVE_INFINITY;
+            }
+            amount = out;
+        }
+        return amount;
+    }
+
+    // Largest input up to limit the path can take, found by bisection since walk() is monotone
+    private double capacity(QuoteState state, int[] path, double limit) {
+        double lo = 0, hi = limit;
+        for (int i = 0; i < 60; i++) {
+            double mid = (lo + hi) / 2;
+            if (walk(state, path, mid, false) >= 0) lo = mid; else hi = mid;
+        }
+        return lo;
+    }
+
+    // Test the logic: a 100 currency graph where a large order has to be split across routes
+    public static void main(String[] args) {
+        Random random = new Random(5);
+        int currencies = 100;
+        double[] prices = new double[currencies];
+        for (int i = 0; i < currencies; i++) prices[i] = 0.5 + random.nextDouble();
+
+        List<DepthEdge> depth = new ArrayList<>();
+        Set<Long> seen = new HashSet<>();
+        while (depth.size() < 2_000) {
+            int from = random.nextInt(currencies), to = random.nextInt(currencies);
+            if (from == to || !seen.add((long) from * currencies + to)) continue;
+
+            // Five levels, each a little worse than the one before
+            double[] rates = new double[5];
+            double[] sizes = new double[5];
+            for (int level = 0; level < 5; level++) {
+                rates[level] = prices[from] / prices[to] * (1 - 0.001 * (level + 1) - random.nextDouble() * 0.002);
+                sizes[level] = 1_000 + random.nextDouble() * 9_000;
+            }
+            depth.add(new DepthEdge("C" + from, "C" + to, rates, sizes));
+        }
+
+        LiquidityRouter router = new LiquidityRouter(depth, 3, 50);
+        Result top = router.bestExchangeResult("C0", "C99");
+        System.out.printf("Top of book: %.6f over %s%n", top.bestRate, top.path);
+
+        for (int i = 0; i < 200; i++) router.quote("C0", "C99", 100_000); // warm-up
+
+        long start = System.nanoTime();
+        SplitQuote quote = router.quote("C0", "C99", 100_000);
+        long elapsed = System.nanoTime() - start;
+
+        System.out.printf("Quoted in %.3f ms: received %.2f for 100000 over %d routes%n", elapsed / 1e6, quote.received, quote.slices.size());
+        quote.slices.forEach(System.out::println);
+    }
+}
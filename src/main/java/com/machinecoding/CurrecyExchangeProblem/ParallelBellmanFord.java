@@ -0,0 +1,144 @@
+package com.machinecoding.CurrecyExchangeProblem;
+
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Bellman-Ford for large asset graphs, with each relaxation pass split across a ForkJoinPool.
+ * <p>
+ * A pass is computed pull-style over the incoming edges: every currency's new distance is read
+ * only from the previous pass's distances, and each task owns a contiguous range of target
+ * currencies. Tasks never write the same cell, and ties keep the first incoming edge, so the
+ * result is identical for any pool size. Passes stop as soon as one changes nothing. Nothing is
+ * kept between queries, so one instance can serve many threads.
+ */
+public class ParallelBellmanFord implements ICurrencyExchange {
+
+    // Below this many target currencies a task relaxes its range itself
+    private static final int SPLIT_THRESHOLD = 256;
+
+    private final ForkJoinPool pool;
+
+    public ParallelBellmanFord(ForkJoinPool pool) {
+        this.pool = pool;
+    }
+
+    // One pass over [from, to) target currencies; returns true if any distance improved
+    @SuppressWarnings("serial")
+    private static class RelaxTask extends RecursiveTask<Boolean> {
+        final CsrGraph incoming;
+        final double[] previous, current;
+        final int[] parent;
+        final int from, to;
+
+        RelaxTask(CsrGraph incoming, double[] previous, double[] current, int[] parent, int from, int to) {
+            this.incoming = incoming;
+            this.previous = previous;
+            this.current = current;
+            this.parent = parent;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected Boolean compute() {
+            if (to - from > SPLIT_THRESHOLD) {
+                int mid = (from + to) >>> 1;
+                RelaxTask left = new RelaxTask(incoming, previous, current, parent, from, mid);
+                left.fork();
+                boolean right = new RelaxTask(incoming, previous, current, parent, mid, to).compute();
+                return left.join() | right;
+            }
+
+            boolean changed = false;
+            for (int v = from; v < to; v++) {
+                double best = previous[v];
+                int bestParent = parent[v];
+                for (int e = incoming.offsets[v]; e < incoming.offsets[v + 1]; e++) {
+                    int u = incoming.targets[e];
+                    double candidate = previous[u] + incoming.weights[e];
+                    if (candidate < best) {
+                        best = candidate;
+                        bestParent = u;
+                    }
+                }
+                current[v] = best;
+                parent[v] = bestParent;
+                changed |= best < previous[v];
+            }
+            return changed;
+        }
+    }
+
+    @Override
+    public Result bestExchangeResult(List<Edge> rates, String src, String dest) {
+        return bestExchangeResult(rates, src, dest, new ArrayList<>());
+    }
+
+    // Same, adding the time of each pass to passNanos
+    Result bestExchangeResult(List<Edge> rates, String src, String dest, List<Long> passNanos) {
+        CurrencyInterner interner = new CurrencyInterner();
+        CsrGraph incoming = CsrGraph.build(rates, interner).transpose();
+        int s = interner.idOf(src), d = interner.idOf(dest);
+        if (s == -1 || d == -1) {
+            return new Result(-1, new ArrayList<>(), false);
+        }
+
+        int n = incoming.vertexCount;
+        double[] dist = new double[n];
+        double[] next = new double[n];
+        int[] parent = new int[n];
+        Arrays.fill(dist, Double.POSITIVE_INFINITY);
+        Arrays.fill(parent, -1);
+        dist[s] = 0.0;
+
+        // Up to n-1 passes, then one more to check for a negative cycle
+        boolean hasNegativeCycle = false;
+        for (int pass = 0; pass < n; pass++) {
+            long start = System.nanoTime();
+            boolean changed = pool.invoke(new RelaxTask(incoming, dist, next, parent, 0, n));
+            passNanos.add(System.nanoTime() - start);
+
+            double[] swap = dist;
+            dist = next;
+            next = swap;
+
+            if (!changed) break;
+            if (pass == n - 1) hasNegativeCycle = true;
+        }
+
+        if (dist[d] == Double.POSITIVE_INFINITY) {
+            return new Result(-1, new ArrayList<>(), hasNegativeCycle);
+        }
+
+        LinkedList<String> path = new LinkedList<>();
+        for (int current = d, steps = 0; current != -1 && steps < n; current = parent[current], steps++) {
+            path.addFirst(interner.name(current));
+            if (current == s) break;
+        }
+        return new Result(Math.exp(-dist[d]), path, hasNegativeCycle);
+    }
+
+    // Test the logic: same graph and answer across pool sizes, with per-pass timing
+    public static void main(String[] args) {
+        List<Edge> rates = CurrencyExchangeBenchmark.randomRates(20_000, 400_000, 11);
+
+        for (int threads : new int[]{1, 2, 4, 8}) {
+            ForkJoinPool pool = new ForkJoinPool(threads);
+            ParallelBellmanFord bellmanFord = new ParallelBellmanFord(pool);
+            bellmanFord.bestExchangeResult(rates, "C0", "C19999"); // warm-up
+
+            List<Long> passes = new ArrayList<>();
+            long start = System.nanoTime();
+            Result result = bellmanFord.bestExchangeResult(rates, "C0", "C19999", passes);
+            long total = System.nanoTime() - start;
+
+            long slowest = Collections.max(passes);
+            System.out.printf("threads=%d rate=%.6f passes=%d total=%.1f ms slowest pass=%.2f ms avg pass=%.2f ms%n",
+                    threads, result.bestRate, passes.size(), total / 1e6, slowest / 1e6,
+                    passes.stream().mapToLong(Long::longValue).average().orElse(0) / 1e6);
+            pool.shutdown();
+        }
+    }
+}
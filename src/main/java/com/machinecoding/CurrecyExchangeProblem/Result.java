@@ -0,0 +1,17 @@
+package com.machinecoding.CurrecyExchangeProblem;
+
+import java.util.*;
+
+// Result class to store the best rate and path and if there's a negative cycle
+class Result {
+    double bestRate;
+    List<String> path;
+    boolean hasNegativeCycle;
+    List<String> arbitrageCycle = new ArrayList<>(); // one of the negative cycles, if any was found
+
+    Result(double bestRate, List<String> path, boolean hasNegativeCycle) {
+        this.bestRate = bestRate;
+        this.path = path;
+        this.hasNegativeCycle = hasNegativeCycle;
+    }
+}
@@ -0,0 +1,70 @@
+package com.machinecoding.FileSystemQuestion;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * A file's bytes, read without locking. One writer at a time (the holder of the file node's lock)
+ * appends or replaces; bytes below {@link #length()} never change once published, so a reader that
+ * reads length first sees a stable prefix. Overwriting a file replaces its FileContent instead of
+ * mutating it.
+ */
+abstract class FileContent {
+
+    static final int CHUNK_BYTES = 4096;
+    static final int MAX_TEXT_BYTES = Integer.MAX_VALUE - 8; // Largest array the JVM reliably allocates
+
+    private static class Decoded {
+        final long length;
+        final String text;
+
+        Decoded(long length, String text) {
+            this.length = length;
+            this.text = text;
+        }
+    }
+
+    private volatile Decoded decoded; // text() for the first decoded.length bytes
+
+    abstract long length();
+
+    // Caller holds the file's lock
+    abstract void append(byte[] bytes, int from, int to);
+
+    // Copies up to len bytes from offset; fewer if the file ends first
+    abstract byte[] read(long offset, int len);
+
+    // Read-only views of the chunks holding up to len bytes from offset, without copying
+    abstract ByteBuffer[] views(long offset, int len);
+
+    // Content holding exactly text, to take this one's place; caller holds the file's lock
+    abstract FileContent replace(String text);
+
+    // The whole file as UTF-8, decoded again only after it has grown
+    String text() {
+        long length = length();
+        Decoded cached = decoded;
+        if (cached != null && cached.length == length) {
+            return cached.text;
+        }
+        if (length > MAX_TEXT_BYTES) {
+            throw new IllegalStateException("File too large to read whole: " + length + " bytes");
+        }
+        byte[] bytes = read(0, (int) length);
+        String text = new String(bytes, StandardCharsets.UTF_8);
+        decoded = new Decoded(bytes.length, text);
+        return text;
+    }
+
+    void remember(String text, long length) {
+        decoded = new Decoded(length, text);
+    }
+
+    static long available(long offset, int len, long length) {
+        if (offset < 0 || len < 0) {
+            throw new IllegalArgumentException("Negative offset or length");
+        }
+        return Math.max(0, Math.min(len, length - offset));
+    }
+}
+
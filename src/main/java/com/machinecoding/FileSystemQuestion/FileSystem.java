@@ -0,0 +1,311 @@
+package com.machinecoding.FileSystemQuestion;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.*;
+
+/**
+ * Safe to share between threads. Reads never lock: children live in ConcurrentHashMaps and file
+ * content is a {@link FileContent} of byte chunks behind a volatile field. Creating or removing an
+ * entry locks only the directory it changes, and appending locks only the file, so writers in
+ * different directories or files never contend. Appends and range reads cost the bytes they move,
+ * not the size of the file. Only files and empty directories can be removed, and removal marks the
+ * node deleted under its own lock, so a writer that finds its directory deleted after taking the
+ * lock fails instead of writing into a detached subtree.
+ * <p>
+ * Paths are tokenized in place with indexOf('/') and each segment is looked up in a
+ * {@link SegmentTable} straight from the path, so a walk allocates nothing; a segment that was never
+ * created cannot exist. Resolved paths, and the parents of paths being written, are kept in a
+ * {@link PathCache}, so a repeated lookup of a deep path is one hash of the path and one compare.
+ * <p>
+ * {@link #open} keeps the tree in a {@link PageStore} instead, loading each directory the first
+ * time a path goes through it.
+ */
+class FileSystem implements AutoCloseable{
+
+    static final int PATH_CACHE_SIZE = 4096;
+
+    Node root;
+    private final PageStore store; // null when the tree lives only in memory
+    private final SegmentTable segments = new SegmentTable();
+    private final PathCache pathCache = new PathCache(PATH_CACHE_SIZE);
+
+    public FileSystem() {
+        this(null);
+    }
+
+    private FileSystem(PageStore store) {
+        this.store = store;
+        root = store == null ? new Node(false) : store.root();
+    }
+
+    // The tree stored in directory, created if empty; durable forces every change to disk before returning
+    public static FileSystem open(Path directory, boolean durable) throws IOException {
+        return new FileSystem(new PageStore(directory, durable));
+    }
+
+    @Override
+    public void close() throws IOException {
+        if(store != null){
+            store.close();
+        }
+    }
+
+    // A directory's children, read from the store on first use
+    private Map<String, Node> children(Node directory) {
+        if(!directory.loaded){
+            synchronized (directory) {
+                if(!directory.loaded){
+                    store.load((StoredNode) directory, segments);
+                    directory.loaded = true;
+                }
+            }
+        }
+        return directory.children;
+    }
+
+    // Caller holds the parent's lock
+    private Node newDirectory(Node parent, String name) {
+        return store == null ? new Node(false) : store.createDirectory((StoredNode) parent, name);
+    }
+
+    // A file already holding content, so it is complete before it is published; caller holds the parent's lock
+    private Node newFile(Node parent, String name, String content) {
+        return store == null ? new Node(true, new HeapFileContent(content)) : store.createFile((StoredNode) parent, name, content);
+    }
+
+    private static void validate(String path) {
+        if(path == null || path.isEmpty() || path.charAt(0) != '/' || path.endsWith("/")) {
+            throw new IllegalArgumentException("Invalid path");
+        }
+    }
+
+    // Node at path[0, end), or null if it doesn't exist; end 0 is the root
+    private Node resolve(String path, int end) {
+        if(end == 0) {
+            return root;
+        }
+        int hash = SegmentTable.hash(path, 0, end);
+        Node cached = pathCache.get(path, end, hash);
+        if(cached != null) {
+            return cached;
+        }
+
+        Node current = root;
+        int start = 1;
+        while(start <= end) {
+            int slash = path.indexOf('/', start);
+            if(slash == -1 || slash > end) {
+                slash = end;
+            }
+            if(current.isFile) {
+                return null;
+            }
+            // Loading first: a stored directory interns its children's names as it loads
+            Map<String, Node> children = children(current);
+            String segment = segments.lookup(path, start, slash);
+            Node next = segment == null ? null : children.get(segment);
+            if(next == null) {
+                return null;
+            }
+            current = next;
+            start = slash + 1;
+        }
+
+        pathCache.put(path, end, hash, current);
+        return current;
+    }
+
+    // The directory a new entry at path goes into
+    private Node parentDirectory(String path) {
+        Node parent = resolve(path, path.lastIndexOf('/'));
+        if(parent == null || parent.isFile){
+            throw new IllegalArgumentException("Parent Directory doesn't exist");
+        }
+        return parent;
+    }
+
+    public void mkdir(String path){
+
+        validate(path);
+
+        Node current = parentDirectory(path);
+        String dirName = segments.intern(path, path.lastIndexOf('/') + 1, path.length());
+        synchronized (current) {
+            if(current.deleted){
+                throw new IllegalArgumentException("Parent Directory doesn't exist");
+            }
+            if(children(current).containsKey(dirName)){
+                throw new IllegalArgumentException("Directory already exists" + dirName);
+            }
+            current.children.put(dirName, newDirectory(current, dirName));
+        }
+
+    }
+    public String readFile(String path){
+        return file(path).content.text();
+    }
+
+    // Up to len bytes from offset; fewer if the file ends first
+    public byte[] readRange(String path, long offset, int len){
+        return file(path).content.read(offset, len);
+    }
+
+    // Read-only views of the file's own chunks for the range, one per chunk it spans
+    public ByteBuffer[] readBuffers(String path, long offset, int len){
+        return file(path).content.views(offset, len);
+    }
+
+    public long fileSize(String path){
+        return file(path).content.length();
+    }
+
+    private Node file(String path){
+        validate(path);
+        Node current = resolve(path, path.length());
+        if(current == null){
+            throw new IllegalArgumentException("File doesn't exist");
+        }
+        if(!current.isFile){
+            throw new IllegalArgumentException("Path is a directory");
+        }
+        return current;
+    }
+
+    public void writeFile(String path, String content){
+
+        // if file already exists, overwrite the content
+        // if file doesn't exist, create a new file
+        // if any intermediate directory doesn't exist, throw exception
+        // if path ends with / or existing directory, throw exception
+
+        validate(path);
+
+        Node current = parentDirectory(path);
+        String fileName = segments.intern(path, path.lastIndexOf('/') + 1, path.length());
+
+        synchronized (current) {
+            if(current.deleted){
+                throw new IllegalArgumentException("Parent Directory doesn't exist");
+            }
+            Node fileNode = children(current).get(fileName);
+            if(fileNode == null){
+                current.children.put(fileName, newFile(current, fileName, content));
+                return;
+            }
+
+            if(!fileNode.isFile){
+                throw new IllegalArgumentException("File already exists with same name as directory " + fileName);
+            }
+
+            // Replaced whole, so readers keep a consistent old or new content
+            synchronized (fileNode) {
+                fileNode.content = fileNode.content.replace(content);
+            }
+        }
+
+    }
+
+    public void appendFile(String path, String content){
+        // Creates the file if it doesn't exist, like writeFile
+
+        validate(path);
+        byte[] bytes = content.getBytes(StandardCharsets.UTF_8);
+
+        Node fileNode = resolve(path, path.length());
+        if(fileNode != null && fileNode.isFile){
+            synchronized (fileNode) {
+                if(!fileNode.deleted){
+                    fileNode.content.append(bytes, 0, bytes.length);
+                    return;
+                }
+            }
+        }
+
+        // Missing or just removed: create it under the directory's lock
+        Node current = parentDirectory(path);
+        String fileName = segments.intern(path, path.lastIndexOf('/') + 1, path.length());
+        synchronized (current) {
+            if(current.deleted){
+                throw new IllegalArgumentException("Parent Directory doesn't exist");
+            }
+            fileNode = children(current).get(fileName);
+            if(fileNode == null){
+                current.children.put(fileName, newFile(current, fileName, content));
+                return;
+            }
+            if(!fileNode.isFile){
+                throw new IllegalArgumentException("File already exists with same name as directory " + fileName);
+            }
+            synchronized (fileNode) {
+                fileNode.content.append(bytes, 0, bytes.length);
+            }
+        }
+    }
+
+    public void rm(String path){
+        // Removes a file or an empty directory
+
+        validate(path);
+
+        int lastSlash = path.lastIndexOf('/');
+        Node parent = resolve(path, lastSlash);
+        if(parent == null || parent.isFile){
+            throw new IllegalArgumentException("Path doesn't exist");
+        }
+        Map<String, Node> children = children(parent);
+        String name = segments.lookup(path, lastSlash + 1, path.length());
+
+        synchronized (parent) {
+            Node node = name == null ? null : children.get(name);
+            if(node == null){
+                throw new IllegalArgumentException("Path doesn't exist");
+            }
+            // Lock order is always parent before child
+            synchronized (node) {
+                if(!node.isFile && !children(node).isEmpty()){
+                    throw new IllegalArgumentException("Directory not empty " + name);
+                }
+                if(store != null){
+                    store.remove((StoredNode) parent, (StoredNode) node);
+                }
+                node.deleted = true;
+                parent.children.remove(name);
+            }
+        }
+    }
+
+    public void ls(String path){
+        System.out.println(list(path));
+    }
+
+    public List<String> list(String path){
+        // List all files and directories in the current directory
+        // If path is a file, return the file name
+        // If path is a directory, return the list of files and directories
+        // If path doesn't exist, throw exception
+
+        validate(path);
+
+        Node current = resolve(path, path.length());
+        if(current == null){
+            throw new IllegalArgumentException("Path doesn't exist");
+        }
+
+        List<String> result = new ArrayList<>();
+
+        if(current.isFile){
+            result.add(path.substring(path.lastIndexOf('/') + 1));
+        }else{
+            for(Map.Entry<String, Node> entry: children(current).entrySet()){
+                result.add(entry.getKey());
+            }
+            Collections.sort(result);
+        }
+
+        return result;
+    }
+
+}
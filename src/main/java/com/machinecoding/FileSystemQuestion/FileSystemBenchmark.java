@@ -0,0 +1,207 @@
+package com.machinecoding.FileSystemQuestion;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Checks FileSystem under concurrent writers and measures read throughput as reader threads are
+ * added, along with deep-path lookups, log-style appends and tails, and cold start of a stored
+ * tree. The pom has no JMH dependency, so this is a plain warm-up-then-measure loop with
+ * System.nanoTime.
+ */
+public class FileSystemBenchmark {
+
+    // depth levels of `fanout` directories, with `files` files in every leaf directory; returns the file paths
+    static List<String> buildTree(FileSystem fileSystem, int depth, int fanout, int files) {
+        List<String> directories = new ArrayList<>(List.of(""));
+        for (int level = 0; level < depth; level++) {
+            List<String> next = new ArrayList<>();
+            for (String parent : directories) {
+                for (int i = 0; i < fanout; i++) {
+                    String directory = parent + "/dir" + level + "_" + i;
+                    fileSystem.mkdir(directory);
+                    next.add(directory);
+                }
+            }
+            directories = next;
+        }
+
+        List<String> paths = new ArrayList<>();
+        for (String directory : directories) {
+            for (int i = 0; i < files; i++) {
+                String path = directory + "/file" + i + ".txt";
+                fileSystem.writeFile(path, "content of " + path);
+                paths.add(path);
+            }
+        }
+        return paths;
+    }
+
+    // Every thread creates its own entries and races the others for a set of shared names
+    static void concurrentWriters(int threads, int perThread) throws InterruptedException {
+        FileSystem fileSystem = new FileSystem();
+        fileSystem.mkdir("/shared");
+        AtomicInteger wonRaces = new AtomicInteger();
+
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        for (int t = 0; t < threads; t++) {
+            int thread = t;
+            executor.execute(() -> {
+                for (int i = 0; i < perThread; i++) {
+                    fileSystem.mkdir("/shared/dir" + thread + "_" + i);
+                    fileSystem.writeFile("/shared/dir" + thread + "_" + i + "/file.txt", "written by " + thread);
+                    try {
+                        fileSystem.mkdir("/shared/contended" + i);
+                        wonRaces.incrementAndGet();
+                    } catch (IllegalArgumentException alreadyCreated) {
+                        // another thread got there first
+                    }
+                }
+            });
+        }
+        executor.shutdown();
+        executor.awaitTermination(1, TimeUnit.MINUTES);
+
+        int entries = fileSystem.list("/shared").size();
+        System.out.printf("%d writers: %d entries (expected %d), %d contended names created once each: %b%n",
+                threads, entries, threads * perThread + perThread, perThread, wonRaces.get() == perThread);
+    }
+
+    static double readsPerSecond(FileSystem fileSystem, List<String> paths, int threads, int readsPerThread) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        List<Callable<Integer>> readers = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            int seed = t;
+            readers.add(() -> {
+                int checksum = 0;
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                for (int i = 0; i < readsPerThread; i++) {
+                    checksum += fileSystem.readFile(paths.get(random.nextInt(paths.size()))).length() + seed;
+                }
+                return checksum;
+            });
+        }
+
+        long start = System.nanoTime();
+        for (Future<Integer> reader : executor.invokeAll(readers)) reader.get();
+        long elapsed = System.nanoTime() - start;
+        executor.shutdown();
+        return (double) threads * readsPerThread / (elapsed / 1e9);
+    }
+
+    // One chain of directories `depth` deep with a file at the bottom; returns the file path
+    static String buildChain(FileSystem fileSystem, int depth) {
+        StringBuilder path = new StringBuilder();
+        for (int level = 0; level < depth; level++) {
+            path.append("/config").append(level);
+            fileSystem.mkdir(path.toString());
+        }
+        String file = path + "/settings.json";
+        fileSystem.writeFile(file, "{}");
+        return file;
+    }
+
+    static double nanosPerRead(FileSystem fileSystem, String path, int reads) {
+        int checksum = 0;
+        long start = System.nanoTime();
+        for (int i = 0; i < reads; i++) checksum += fileSystem.readFile(path).length();
+        long elapsed = System.nanoTime() - start;
+        if (checksum != reads * fileSystem.readFile(path).length()) throw new IllegalStateException();
+        return (double) elapsed / reads;
+    }
+
+    // Grows one log file line by line, timing appends and a 4 KB tail as it reaches each size
+    static void appendAndTail(int lineBytes, long[] sizes, boolean report) {
+        FileSystem fileSystem = new FileSystem();
+        fileSystem.mkdir("/var");
+        String line = "x".repeat(lineBytes - 1) + "\n";
+        long appended = 0;
+        for (long size : sizes) {
+            long appends = 0;
+            long start = System.nanoTime();
+            while (appended < size) {
+                fileSystem.appendFile("/var/app.log", line);
+                appended += lineBytes;
+                appends++;
+            }
+            double nanosPerAppend = (double) (System.nanoTime() - start) / Math.max(1, appends);
+
+            long length = fileSystem.fileSize("/var/app.log");
+            int checksum = 0;
+            start = System.nanoTime();
+            for (int i = 0; i < 100_000; i++) {
+                for (ByteBuffer view : fileSystem.readBuffers("/var/app.log", length - 4096, 4096)) checksum += view.remaining();
+            }
+            double nanosPerTail = (System.nanoTime() - start) / 100_000.0;
+            if (checksum != 100_000 * 4096 || fileSystem.readRange("/var/app.log", length - 1, 10)[0] != '\n') {
+                throw new IllegalStateException("Tail read the wrong bytes");
+            }
+            if (report) System.out.printf("log at %3d MB: %.0f ns per %d byte append, %.0f ns per 4 KB tail%n",
+                    length >> 20, nanosPerAppend, lineBytes, nanosPerTail);
+        }
+    }
+
+    // Stores directories x files empty files, then times reopening the tree and the first lookups
+    static void coldStart(int directories, int files) throws IOException {
+        Path directory = Files.createTempDirectory("filesystem");
+        long start = System.nanoTime();
+        try (FileSystem fileSystem = FileSystem.open(directory, false)) {
+            for (int d = 0; d < directories; d++) {
+                fileSystem.mkdir("/dir" + d);
+                for (int f = 0; f < files; f++) fileSystem.writeFile("/dir" + d + "/file" + f, "");
+            }
+            fileSystem.writeFile("/dir7/file7", "seven");
+        }
+        System.out.printf("Stored %d entries in %.1f s%n", directories + (long) directories * files, (System.nanoTime() - start) / 1e9);
+
+        start = System.nanoTime();
+        try (FileSystem fileSystem = FileSystem.open(directory, false)) {
+            long opened = System.nanoTime();
+            String content = fileSystem.readFile("/dir7/file7");
+            long firstRead = System.nanoTime();
+            String again = fileSystem.readFile("/dir7/file7");
+            long secondRead = System.nanoTime();
+            System.out.printf("Reopened in %.2f ms; first read %.2f ms (loads / and /dir7), second %.1f us: %s %s%n",
+                    (opened - start) / 1e6, (firstRead - opened) / 1e6, (secondRead - firstRead) / 1e3, content, again);
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        coldStart(1_000, 1_000);
+
+        appendAndTail(100, new long[]{16 << 20}, false); // warm-up
+        appendAndTail(100, new long[]{1 << 20, 16 << 20, 64 << 20, 256 << 20}, true);
+
+        for (int depth : new int[]{1, 8, 32, 128}) {
+            FileSystem fileSystem = new FileSystem();
+            String path = buildChain(fileSystem, depth);
+            nanosPerRead(fileSystem, path, 1_000_000); // warm-up
+            System.out.printf("depth %3d: %.0f ns per read%n", depth, nanosPerRead(fileSystem, path, 1_000_000));
+        }
+
+        // A cached path must not outlive its node
+        FileSystem replaced = new FileSystem();
+        String settings = buildChain(replaced, 4);
+        replaced.readFile(settings);
+        replaced.rm(settings);
+        replaced.writeFile(settings, "{\"version\": 2}");
+        System.out.println("After rm and rewrite: " + replaced.readFile(settings));
+
+        for (int threads : new int[]{1, 4, 8}) concurrentWriters(threads, 2_000);
+
+        FileSystem fileSystem = new FileSystem();
+        List<String> paths = buildTree(fileSystem, 6, 4, 4);
+        readsPerSecond(fileSystem, paths, 1, 1_000_000); // warm-up
+
+        for (int threads : new int[]{1, 2, 4, 8}) {
+            System.out.printf("%d readers: %.2f M reads/s over %d files%n",
+                    threads, readsPerSecond(fileSystem, paths, threads, 1_000_000) / 1e6, paths.size());
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package com.machinecoding.FileSystemQuestion;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * File bytes in fixed-size heap chunks, so an append only touches the last chunk and a range read
+ * only the chunks it covers, whatever the size of the file. Length is published after the bytes
+ * and chunk array it covers.
+ */
+class HeapFileContent extends FileContent {
+
+    private volatile byte[][] chunks = new byte[4][];
+    private volatile long length;
+
+    HeapFileContent() {
+    }
+
+    HeapFileContent(String text) {
+        byte[] bytes = text.getBytes(StandardCharsets.UTF_8);
+        append(bytes, 0, bytes.length);
+        remember(text, bytes.length);
+    }
+
+    @Override
+    long length() {
+        return length;
+    }
+
+    @Override
+    void append(byte[] bytes, int from, int to) {
+        byte[][] spine = chunks;
+        long end = length;
+        while (from < to) {
+            int chunk = (int) (end / CHUNK_BYTES);
+            int offset = (int) (end % CHUNK_BYTES);
+            if (chunk == spine.length) {
+                spine = Arrays.copyOf(spine, spine.length * 2);
+            }
+            if (spine[chunk] == null) {
+                spine[chunk] = new byte[CHUNK_BYTES];
+            }
+            int n = Math.min(to - from, CHUNK_BYTES - offset);
+            System.arraycopy(bytes, from, spine[chunk], offset, n);
+            from += n;
+            end += n;
+        }
+        chunks = spine;
+        length = end;
+    }
+
+    @Override
+    byte[] read(long offset, int len) {
+        long available = available(offset, len, length); // length before chunks
+        byte[][] spine = chunks;
+        byte[] result = new byte[(int) available];
+        for (int copied = 0; copied < result.length; ) {
+            long position = offset + copied;
+            int inChunk = (int) (position % CHUNK_BYTES);
+            int n = Math.min(result.length - copied, CHUNK_BYTES - inChunk);
+            System.arraycopy(spine[(int) (position / CHUNK_BYTES)], inChunk, result, copied, n);
+            copied += n;
+        }
+        return result;
+    }
+
+    @Override
+    ByteBuffer[] views(long offset, int len) {
+        long end = offset + available(offset, len, length);
+        byte[][] spine = chunks;
+        if (end == offset) {
+            return new ByteBuffer[0];
+        }
+        int first = (int) (offset / CHUNK_BYTES);
+        int last = (int) ((end - 1) / CHUNK_BYTES);
+        ByteBuffer[] views = new ByteBuffer[last - first + 1];
+        for (int chunk = first; chunk <= last; chunk++) {
+            int from = chunk == first ? (int) (offset % CHUNK_BYTES) : 0;
+            int to = chunk == last ? (int) ((end - 1) % CHUNK_BYTES) + 1 : CHUNK_BYTES;
+            views[chunk - first] = ByteBuffer.wrap(spine[chunk], from, to - from).slice().asReadOnlyBuffer();
+        }
+        return views;
+    }
+
+    @Override
+    FileContent replace(String text) {
+        return new HeapFileContent(text);
+    }
+}
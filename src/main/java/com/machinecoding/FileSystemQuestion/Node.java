@@ -0,0 +1,23 @@
+package com.machinecoding.FileSystemQuestion;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+class Node{
+
+    final boolean isFile;
+    volatile FileContent content; // Only for files; appended to under this node's lock
+    final Map<String, Node> children; // Only for directories
+    volatile boolean deleted; // Set once, under the parent's and this node's lock
+    volatile boolean loaded = true; // False for a stored directory whose children are not read yet
+
+    public Node(boolean isFile){
+        this(isFile, isFile ? new HeapFileContent() : null);
+    }
+
+    Node(boolean isFile, FileContent content){
+        this.isFile = isFile;
+        this.content = content;
+        this.children = isFile ? null : new ConcurrentHashMap<>();
+    }
+}
@@ -0,0 +1,527 @@
+package com.machinecoding.FileSystemQuestion;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.zip.CRC32C;
+
+/**
+ * Persistent FileSystem tree in a memory-mapped file of 4 KB pages, with a write-ahead log.
+ * <p>
+ * Page 0 is the header: magic, page count, the root directory page and the head of each free list.
+ * A directory is a chain of pages of variable-length entries: type, name as length-prefixed UTF-8,
+ * then the directory's first page, or the file's length and first index page. Index pages list a
+ * file's chunk pages in order; free-list trunk pages list free pages. Both are a next pointer, a
+ * count and up to {@link #LIST_CAPACITY} page numbers. A removed entry is flagged, and the space of
+ * a run of removed entries is reused by the next entry that fits in it; any leftover is written as
+ * removed filler entries, so a page always parses. Churn in a directory therefore does not grow its
+ * page chain, and loading it skips a bounded number of dead entries.
+ * <p>
+ * Metadata changes are redo-logged: an operation's byte writes go to the log as one checksummed
+ * record, the log's committed length is bumped, and only then are they applied to the pages, so a
+ * change cut short is either replayed whole on the next open or never happened. A machine crash can
+ * persist the new length without all of the record, so replay stops at the first record whose
+ * checksum does not match. File data is not logged: it goes straight to pages that nothing reachable
+ * points at yet (new pages, or the unused tail of a file's last chunk) before the metadata that
+ * makes it visible commits. Once the log is half full the pages are forced and the log is emptied.
+ * <p>
+ * Replay rewrites every page the log mentions, so a page that was ever written through the log must
+ * never hold file data while the log may still mention it. Freed pages therefore go on one of two
+ * lists: chunk pages on the data list, directory, index and trunk pages on the logged list. Data is
+ * only written to leaves of the data list or to new pages; an emptied data trunk moves to the
+ * logged list. Frees are pushed at commit, after the operation has taken every page it needs, so
+ * the free lists read within an operation are always the applied ones.
+ * <p>
+ * Like OrderJournal, writes survive a process crash. With durable set, every operation also forces
+ * its data pages and then its log record before it returns, so it survives a machine crash too.
+ * <p>
+ * Opening maps the files, replays the log tail and reads the header, failing on a file that is
+ * not empty and not a page store instead of overwriting it; directories are read only when
+ * first touched, so cold start does not depend on the size of the tree. Writers serialize on the
+ * store; readers never lock.
+ */
+class PageStore implements AutoCloseable {
+
+    static final int PAGE_BYTES = FileContent.CHUNK_BYTES;
+    static final int SEGMENT_BYTES = 16_384 * PAGE_BYTES; // 64 MB per mapping
+    static final int WAL_BYTES = 8 << 20;
+    static final int HEADER_BYTES = 64;
+    static final int RECORD_HEADER = 8; // Length, then CRC32C of the payload
+
+    private static final long MAGIC = 0x4653_5041_4745_5331L;
+    private static final int PAGE_COUNT = 8, ROOT = 12, DATA_TRUNK = 16, LOGGED_TRUNK = 20;
+
+    // Directory pages; the tail is only kept in a directory's first page
+    static final int DIR_NEXT = 0, DIR_USED = 4, DIR_TAIL = 8, DIR_HEADER = 12;
+    // Free-list trunk and file index pages
+    static final int LIST_NEXT = 0, LIST_COUNT = 4, LIST_IDS = 8, LIST_CAPACITY = (PAGE_BYTES - LIST_IDS) / 4;
+
+    static final byte DIRECTORY = 1, FILE = 2, REMOVED = (byte) 0x80;
+    static final int MAX_NAME_BYTES = 255;
+    // Smallest and largest removed entry that can fill a leftover: a directory or file entry with an empty or a full name
+    static final int MIN_FILLER = 2 + 4, MAX_FILLER = 2 + MAX_NAME_BYTES + 12;
+
+    // A stack of free pages: trunk pages, each listing up to LIST_CAPACITY leaf pages
+    private static class FreeList {
+        final int field; // Header offset of the head trunk
+        int trunk, count;
+
+        FreeList(int field) {
+            this.field = field;
+        }
+    }
+
+    private static class PageList {
+        int[] pages = new int[16];
+        int size;
+
+        void add(int page) {
+            if (size == pages.length) {
+                pages = Arrays.copyOf(pages, size * 2);
+            }
+            pages[size++] = page;
+        }
+    }
+
+    private final FileChannel pageChannel;
+    private final FileChannel walChannel;
+    private final MappedByteBuffer wal;
+    private final boolean durable;
+    private volatile MappedByteBuffer[] segments = new MappedByteBuffer[0];
+    private final int root;
+
+    // Guarded by this
+    private int pageCount;
+    private final FreeList freeData = new FreeList(DATA_TRUNK);
+    private final FreeList freeLogged = new FreeList(LOGGED_TRUNK);
+    private ByteBuffer pending = ByteBuffer.allocate(4096);
+    private final PageList written = new PageList();     // Data pages written by this operation
+    private final PageList freedData = new PageList();   // Pushed at commit
+    private final PageList freedLogged = new PageList(); // Pushed at commit
+
+    PageStore(Path directory, boolean durable) throws IOException {
+        this.durable = durable;
+        this.pageChannel = FileChannel.open(directory.resolve("pages.dat"), StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        this.walChannel = FileChannel.open(directory.resolve("pages.wal"), StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        this.wal = walChannel.map(FileChannel.MapMode.READ_WRITE, 0, WAL_BYTES);
+        ensureMapped(Math.max(0, pageChannel.size() - 1));
+
+        replay();
+        long magic = readLong(0);
+        if (magic == 0) {
+            create(); // New, or cut short before its header ever committed
+        } else if (magic != MAGIC) {
+            pageChannel.close();
+            walChannel.close();
+            throw new IOException("Not a page store: " + directory.resolve("pages.dat"));
+        }
+        this.pageCount = readInt(PAGE_COUNT);
+        for (FreeList list : new FreeList[]{freeData, freeLogged}) {
+            list.trunk = readInt(list.field);
+            list.count = list.trunk == 0 ? 0 : readInt(offset(list.trunk) + LIST_COUNT);
+        }
+        this.root = readInt(ROOT);
+    }
+
+    // Header page and an empty root directory, committed as one record
+    private synchronized void create() {
+        pageCount = 2;
+        logInt(PAGE_COUNT, pageCount);
+        logInt(ROOT, 1);
+        logInt(DATA_TRUNK, 0);
+        logInt(LOGGED_TRUNK, 0);
+        initDirectoryPage(1, 1);
+        logLong(0, MAGIC);
+        commit();
+    }
+
+    StoredNode root() {
+        return new StoredNode(root, -1, false);
+    }
+
+    // Reads a directory's entries into its children; caller holds the directory's lock
+    void load(StoredNode directory, SegmentTable segmentTable) {
+        for (int page = directory.page; page != 0; page = readInt(offset(page) + DIR_NEXT)) {
+            long base = offset(page);
+            int used = readInt(base + DIR_USED);
+            for (int at = DIR_HEADER; at < used; ) {
+                long entry = base + at;
+                byte type = readByte(entry);
+                byte[] name = new byte[readByte(entry + 1) & 0xFF];
+                segment(entry).get(inSegment(entry + 2), name);
+                long target = entry + 2 + name.length;
+
+                boolean directoryEntry = (type & ~REMOVED) == DIRECTORY;
+                int size = entrySize(directoryEntry, name.length);
+                at += size;
+                if ((type & REMOVED) != 0) {
+                    addHole(directory, entry, size);
+                    continue;
+                }
+                String decoded = new String(name, StandardCharsets.UTF_8);
+                String canonical = segmentTable.intern(decoded, 0, decoded.length());
+                directory.children.put(canonical, directoryEntry
+                        ? new StoredNode(readInt(target), entry, false)
+                        : new StoredNode(entry, new PagedFileContent(this, target, false)));
+            }
+        }
+    }
+
+    // Caller holds the parent's lock
+    synchronized StoredNode createDirectory(StoredNode parent, String name) {
+        byte[] nameBytes = encode(name);
+        int page = allocateLoggedPage();
+        initDirectoryPage(page, page);
+        long entry = addEntry(parent, ByteBuffer.allocate(2 + nameBytes.length + 4)
+                .put(DIRECTORY).put((byte) nameBytes.length).put(nameBytes).putInt(page).array());
+        commit();
+        return new StoredNode(page, entry, true);
+    }
+
+    // A file holding text, committed together with its entry; caller holds the parent's lock
+    synchronized StoredNode createFile(StoredNode parent, String name, String text) {
+        byte[] nameBytes = encode(name);
+        long entry = addEntry(parent, ByteBuffer.allocate(2 + nameBytes.length + 12)
+                .put(FILE).put((byte) nameBytes.length).put(nameBytes).putLong(0).putInt(0).array());
+        PagedFileContent content = new PagedFileContent(this, entry + 2 + nameBytes.length, true);
+        content.initialize(text);
+        return new StoredNode(entry, content);
+    }
+
+    // A file or an empty directory; caller holds the parent's and the node's lock
+    synchronized void remove(StoredNode parent, StoredNode node) {
+        logByte(node.entry, (byte) (readByte(node.entry) | REMOVED));
+        if (node.isFile) {
+            ((PagedFileContent) node.content).freePages();
+        } else {
+            for (int page = node.page; page != 0; page = readInt(offset(page) + DIR_NEXT)) {
+                freeLoggedPage(page);
+            }
+        }
+        commit();
+        if (node.isFile) {
+            ((PagedFileContent) node.content).retire(null);
+        }
+        // Only now can the entry's bytes be reused: a removed file's content was loaded by freePages
+        addHole(parent, node.entry, entrySize(!node.isFile, readByte(node.entry + 1) & 0xFF));
+    }
+
+    static int entrySize(boolean directory, int nameBytes) {
+        return 2 + nameBytes + (directory ? 4 : 12);
+    }
+
+    // Merges the removed entry with the holes right before and after it
+    private static void addHole(StoredNode directory, long at, int size) {
+        StoredNode.Hole before = null, after = null;
+        for (StoredNode.Hole hole : directory.holes) {
+            if (hole.at + hole.size == at) before = hole;
+            else if (at + size == hole.at) after = hole;
+        }
+        if (before != null && after != null) {
+            before.size += size + after.size;
+            directory.holes.remove(after);
+        } else if (before != null) {
+            before.size += size;
+        } else if (after != null) {
+            after.at = at;
+            after.size += size;
+        } else {
+            directory.holes.add(new StoredNode.Hole(at, size));
+        }
+    }
+
+    private long addEntry(StoredNode parent, byte[] entry) {
+        // First fit among the holes that leave nothing or room for a filler
+        for (int i = 0; i < parent.holes.size(); i++) {
+            StoredNode.Hole hole = parent.holes.get(i);
+            int rest = hole.size - entry.length;
+            if (rest == 0 || rest >= MIN_FILLER) {
+                long at = hole.at;
+                log(at, entry);
+                fill(at + entry.length, rest);
+                if (rest == 0) {
+                    parent.holes.remove(i);
+                } else {
+                    hole.at += entry.length;
+                    hole.size = rest;
+                }
+                return at;
+            }
+        }
+
+        long first = offset(parent.page);
+        int tail = readInt(first + DIR_TAIL);
+        int used = readInt(offset(tail) + DIR_USED);
+        if (used + entry.length > PAGE_BYTES) {
+            int next = allocateLoggedPage();
+            initDirectoryPage(next, next);
+            logInt(offset(tail) + DIR_NEXT, next);
+            logInt(first + DIR_TAIL, next);
+            tail = next;
+            used = DIR_HEADER;
+        }
+        long at = offset(tail) + used;
+        log(at, entry);
+        logInt(offset(tail) + DIR_USED, used + entry.length);
+        return at;
+    }
+
+    // Removed entries covering exactly [at, at + size); each is a type and a name length, the rest is skipped
+    private void fill(long at, int size) {
+        while (size > 0) {
+            int piece = size <= MAX_FILLER ? size : Math.min(MAX_FILLER, size - MIN_FILLER);
+            boolean directory = piece < entrySize(false, 0);
+            log(at, new byte[]{(byte) ((directory ? DIRECTORY : FILE) | REMOVED), (byte) (piece - entrySize(directory, 0))});
+            at += piece;
+            size -= piece;
+        }
+    }
+
+    private void initDirectoryPage(int page, int tail) {
+        logInt(offset(page) + DIR_NEXT, 0);
+        logInt(offset(page) + DIR_USED, DIR_HEADER);
+        logInt(offset(page) + DIR_TAIL, tail);
+    }
+
+    private static byte[] encode(String name) {
+        byte[] bytes = name.getBytes(StandardCharsets.UTF_8);
+        if (bytes.length > MAX_NAME_BYTES) {
+            throw new IllegalArgumentException("Name longer than " + MAX_NAME_BYTES + " bytes " + name);
+        }
+        return bytes;
+    }
+
+    // Page for file data, written in place before the change that makes it reachable commits
+    int allocateDataPage() {
+        while (freeData.count == 0 && freeData.trunk != 0 && readInt(offset(freeData.trunk) + LIST_NEXT) != 0) {
+            freedLogged.add(freeData.trunk); // Logged to as a trunk, so never data again
+            advance(freeData);
+        }
+        if (freeData.count > 0) {
+            return popLeaf(freeData);
+        }
+        int page = pageCount++;
+        logInt(PAGE_COUNT, pageCount);
+        ensureMapped(offset(page + 1) - 1);
+        return page;
+    }
+
+    // Page written only through the log; an empty logged trunk can be one too
+    int allocateLoggedPage() {
+        if (freeLogged.count > 0) {
+            return popLeaf(freeLogged);
+        }
+        if (freeLogged.trunk != 0) {
+            int page = freeLogged.trunk;
+            advance(freeLogged);
+            return page;
+        }
+        return allocateDataPage();
+    }
+
+    // Given back at commit, for file data
+    void freeDataPage(int page) {
+        freedData.add(page);
+    }
+
+    // Given back at commit, for pages written through the log
+    void freeLoggedPage(int page) {
+        freedLogged.add(page);
+    }
+
+    private int popLeaf(FreeList list) {
+        list.count--;
+        logInt(offset(list.trunk) + LIST_COUNT, list.count);
+        return readInt(offset(list.trunk) + LIST_IDS + 4L * list.count);
+    }
+
+    private void advance(FreeList list) {
+        list.trunk = readInt(offset(list.trunk) + LIST_NEXT);
+        list.count = list.trunk == 0 ? 0 : readInt(offset(list.trunk) + LIST_COUNT);
+        logInt(list.field, list.trunk);
+    }
+
+    private void push(FreeList list, int page) {
+        if (list.trunk != 0 && list.count < LIST_CAPACITY) {
+            logInt(offset(list.trunk) + LIST_IDS + 4L * list.count, page);
+            logInt(offset(list.trunk) + LIST_COUNT, ++list.count);
+        } else {
+            logInt(offset(page) + LIST_NEXT, list.trunk);
+            logInt(offset(page) + LIST_COUNT, 0);
+            list.trunk = page;
+            list.count = 0;
+            logInt(list.field, page);
+        }
+    }
+
+    void writeData(int page, int at, byte[] bytes, int from, int len) {
+        long offset = offset(page) + at;
+        segment(offset).put(inSegment(offset), bytes, from, len);
+        written.add(page);
+    }
+
+    void log(long offset, byte[] bytes) {
+        reserve(12 + bytes.length).putLong(offset).putInt(bytes.length).put(bytes);
+    }
+
+    void logLong(long offset, long value) {
+        reserve(20).putLong(offset).putInt(8).putLong(value);
+    }
+
+    void logInt(long offset, int value) {
+        reserve(16).putLong(offset).putInt(4).putInt(value);
+    }
+
+    private void logByte(long offset, byte value) {
+        reserve(13).putLong(offset).putInt(1).put(value);
+    }
+
+    private ByteBuffer reserve(int bytes) {
+        if (pending.remaining() < bytes) {
+            ByteBuffer bigger = ByteBuffer.allocate(Math.max(pending.capacity() * 2, pending.position() + bytes));
+            pending = bigger.put(pending.flip());
+        }
+        return pending;
+    }
+
+    // Frees, data pages, then the log record, then the pages it describes
+    void commit() {
+        for (int i = 0; i < freedData.size; i++) push(freeData, freedData.pages[i]);
+        for (int i = 0; i < freedLogged.size; i++) push(freeLogged, freedLogged.pages[i]);
+        freedData.size = 0;
+        freedLogged.size = 0;
+
+        if (durable) {
+            for (int i = 0; i < written.size; i++) {
+                long offset = offset(written.pages[i]);
+                segment(offset).force(inSegment(offset), PAGE_BYTES);
+            }
+        }
+        written.size = 0;
+
+        int length = pending.position();
+        if (HEADER_BYTES + RECORD_HEADER + length > WAL_BYTES) {
+            throw new IllegalStateException("Change of " + length + " bytes is too large for the write-ahead log");
+        }
+        int end = committedLog();
+        if (end + RECORD_HEADER + length > WAL_BYTES) {
+            checkpoint();
+            end = HEADER_BYTES;
+        }
+        ByteBuffer record = ByteBuffer.wrap(pending.array());
+        wal.putInt(end, length).putInt(end + 4, checksum(record, 0, length)).put(end + RECORD_HEADER, pending.array(), 0, length);
+        wal.putLong(0, end + RECORD_HEADER + length);
+        if (durable) {
+            wal.force();
+        }
+
+        apply(record, 0, length);
+        pending.clear();
+        if (end + RECORD_HEADER + length > WAL_BYTES / 2) {
+            checkpoint();
+        }
+    }
+
+    private static int checksum(ByteBuffer bytes, int from, int length) {
+        CRC32C crc = new CRC32C();
+        crc.update(bytes.slice(from, length));
+        return (int) crc.getValue();
+    }
+
+    private int committedLog() {
+        return (int) Math.max(HEADER_BYTES, wal.getLong(0));
+    }
+
+    private void apply(ByteBuffer records, int from, int to) {
+        for (int at = from; at < to; ) {
+            long offset = records.getLong(at);
+            int length = records.getInt(at + 8);
+            ensureMapped(offset + length - 1);
+            segment(offset).put(inSegment(offset), records, at + 12, length);
+            at += 12 + length;
+        }
+    }
+
+    // Redo every committed record; applying one twice writes the same bytes again
+    private void replay() {
+        int end = committedLog();
+        for (int at = HEADER_BYTES; at < end; ) {
+            int length = wal.getInt(at);
+            // Torn by a crash before the forced record reached disk: it and anything after it never returned
+            if (length < 0 || at + RECORD_HEADER + length > end || wal.getInt(at + 4) != checksum(wal, at + RECORD_HEADER, length)) {
+                break;
+            }
+            apply(wal, at + RECORD_HEADER, at + RECORD_HEADER + length);
+            at += RECORD_HEADER + length;
+        }
+        if (end > HEADER_BYTES) {
+            checkpoint();
+        }
+    }
+
+    // Everything the log describes is on disk, so it can start over
+    private void checkpoint() {
+        for (MappedByteBuffer segment : segments) segment.force();
+        wal.putLong(0, HEADER_BYTES);
+        wal.force();
+    }
+
+    private void ensureMapped(long offset) {
+        int needed = (int) (offset / SEGMENT_BYTES) + 1;
+        MappedByteBuffer[] mapped = segments;
+        if (mapped.length >= needed) {
+            return;
+        }
+        mapped = Arrays.copyOf(mapped, needed);
+        try {
+            for (int i = segments.length; i < needed; i++) {
+                mapped[i] = pageChannel.map(FileChannel.MapMode.READ_WRITE, (long) i * SEGMENT_BYTES, SEGMENT_BYTES);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        segments = mapped;
+    }
+
+    static long offset(int page) {
+        return (long) page * PAGE_BYTES;
+    }
+
+    MappedByteBuffer segment(long offset) {
+        return segments[(int) (offset / SEGMENT_BYTES)];
+    }
+
+    static int inSegment(long offset) {
+        return (int) (offset % SEGMENT_BYTES);
+    }
+
+    byte readByte(long offset) {
+        return segment(offset).get(inSegment(offset));
+    }
+
+    int readInt(long offset) {
+        return segment(offset).getInt(inSegment(offset));
+    }
+
+    long readLong(long offset) {
+        return segment(offset).getLong(inSegment(offset));
+    }
+
+    synchronized void force() {
+        checkpoint();
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        checkpoint();
+        pageChannel.close();
+        walChannel.close();
+    }
+}
+
@@ -0,0 +1,223 @@
+package com.machinecoding.FileSystemQuestion;
+
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * A stored file's content, read straight from the page mapping. Its chunk list is read from the
+ * index pages on first use. Pages freed by an overwrite or removal can be reused by another file,
+ * so a reader checks after copying that the content was not retired meanwhile, and if it was,
+ * reads the content that replaced it. Views skip that check: like any mapping, they are only valid
+ * until the file is overwritten or removed.
+ */
+class PagedFileContent extends FileContent {
+
+    private static final int PAGE_BYTES = PageStore.PAGE_BYTES;
+
+    private final PageStore store;
+    private final long meta; // The entry's length, followed by its first index page
+
+    private volatile boolean loaded;
+    private volatile int[] chunks = new int[0]; // Page of each chunk
+    private volatile long length;
+    private int firstIndex, lastIndex, lastIndexCount; // Guarded by the file's lock
+
+    private volatile PagedFileContent successor;
+    private volatile boolean retired;
+
+    PagedFileContent(PageStore store, long meta, boolean empty) {
+        this.store = store;
+        this.meta = meta;
+        this.loaded = empty;
+    }
+
+    private void ensureLoaded() {
+        if (!loaded) {
+            load();
+        }
+    }
+
+    private synchronized void load() {
+        if (loaded) {
+            return;
+        }
+        long end = store.readLong(meta);
+        int[] pages = new int[(int) ((end + PAGE_BYTES - 1) / PAGE_BYTES)];
+        int count = 0;
+        firstIndex = store.readInt(meta + 8);
+        for (int page = firstIndex; page != 0; page = store.readInt(PageStore.offset(page) + PageStore.LIST_NEXT)) {
+            lastIndex = page;
+            lastIndexCount = store.readInt(PageStore.offset(page) + PageStore.LIST_COUNT);
+            for (int i = 0; i < lastIndexCount; i++) {
+                pages[count++] = store.readInt(PageStore.offset(page) + PageStore.LIST_IDS + 4L * i);
+            }
+        }
+        chunks = pages;
+        length = end;
+        loaded = true;
+    }
+
+    @Override
+    long length() {
+        ensureLoaded();
+        return retired ? successorOrThrow().length() : length;
+    }
+
+    @Override
+    void append(byte[] bytes, int from, int to) {
+        ensureLoaded();
+        synchronized (store) {
+            long end = write(bytes, from, to);
+            store.commit();
+            length = end;
+        }
+    }
+
+    // First content of a new entry, committed in the same record as the entry; caller holds the store
+    void initialize(String text) {
+        byte[] bytes = text.getBytes(StandardCharsets.UTF_8);
+        long end = write(bytes, 0, bytes.length);
+        store.commit();
+        length = end;
+        remember(text, bytes.length);
+    }
+
+    @Override
+    FileContent replace(String text) {
+        byte[] bytes = text.getBytes(StandardCharsets.UTF_8);
+        ensureLoaded();
+        synchronized (store) {
+            PagedFileContent fresh = new PagedFileContent(store, meta, true);
+            store.logInt(meta + 8, 0);
+            long end = fresh.write(bytes, 0, bytes.length);
+            freePages();
+            store.commit();
+            fresh.length = end;
+            retire(fresh);
+            fresh.remember(text, bytes.length);
+            return fresh;
+        }
+    }
+
+    // Data straight to pages, index and length through the log; caller holds the store, commits and
+    // then publishes the returned length. Chunks past the published length are never read.
+    private long write(byte[] bytes, int from, int to) {
+        long end = length;
+        int[] pages = chunks;
+        int count = (int) ((end + PAGE_BYTES - 1) / PAGE_BYTES);
+        int firstNew = count;
+        while (from < to) {
+            int inChunk = (int) (end % PAGE_BYTES);
+            if (inChunk == 0) {
+                if (count == pages.length) {
+                    pages = Arrays.copyOf(pages, Math.max(4, pages.length * 2));
+                }
+                pages[count++] = store.allocateDataPage();
+            }
+            int n = Math.min(to - from, PAGE_BYTES - inChunk);
+            store.writeData(pages[count - 1], inChunk, bytes, from, n);
+            from += n;
+            end += n;
+        }
+        index(pages, firstNew, count);
+        store.logLong(meta, end);
+        chunks = pages;
+        return end;
+    }
+
+    private void index(int[] pages, int from, int to) {
+        while (from < to) {
+            if (lastIndex == 0 || lastIndexCount == PageStore.LIST_CAPACITY) {
+                int page = store.allocateLoggedPage();
+                store.logInt(PageStore.offset(page) + PageStore.LIST_NEXT, 0);
+                if (lastIndex == 0) {
+                    firstIndex = page;
+                    store.logInt(meta + 8, page);
+                } else {
+                    store.logInt(PageStore.offset(lastIndex) + PageStore.LIST_NEXT, page);
+                }
+                lastIndex = page;
+                lastIndexCount = 0;
+            }
+            int n = Math.min(to - from, PageStore.LIST_CAPACITY - lastIndexCount);
+            ByteBuffer ids = ByteBuffer.allocate(4 * n);
+            for (int i = 0; i < n; i++) ids.putInt(pages[from + i]);
+            store.log(PageStore.offset(lastIndex) + PageStore.LIST_IDS + 4L * lastIndexCount, ids.array());
+            lastIndexCount += n;
+            store.logInt(PageStore.offset(lastIndex) + PageStore.LIST_COUNT, lastIndexCount);
+            from += n;
+        }
+    }
+
+    // Caller holds the store
+    void freePages() {
+        ensureLoaded();
+        int count = (int) ((length + PAGE_BYTES - 1) / PAGE_BYTES);
+        for (int i = 0; i < count; i++) store.freeDataPage(chunks[i]);
+        for (int page = firstIndex; page != 0; page = store.readInt(PageStore.offset(page) + PageStore.LIST_NEXT)) {
+            store.freeLoggedPage(page);
+        }
+    }
+
+    // Before the freed pages can be handed out again; null successor when the file was removed
+    void retire(PagedFileContent successor) {
+        this.successor = successor;
+        this.retired = true;
+    }
+
+    private PagedFileContent successorOrThrow() {
+        PagedFileContent next = successor;
+        if (next == null) {
+            throw new IllegalArgumentException("File doesn't exist");
+        }
+        return next;
+    }
+
+    @Override
+    byte[] read(long offset, int len) {
+        ensureLoaded();
+        long available = available(offset, len, length); // length before chunks
+        int[] pages = chunks;
+        byte[] result = new byte[(int) available];
+        for (int copied = 0; copied < result.length; ) {
+            long position = offset + copied;
+            int inChunk = (int) (position % PAGE_BYTES);
+            int n = Math.min(result.length - copied, PAGE_BYTES - inChunk);
+            long from = PageStore.offset(pages[(int) (position / PAGE_BYTES)]) + inChunk;
+            store.segment(from).get(PageStore.inSegment(from), result, copied, n);
+            copied += n;
+        }
+        VarHandle.acquireFence(); // The copy above happens before the check below
+        return retired ? successorOrThrow().read(offset, len) : result;
+    }
+
+    @Override
+    ByteBuffer[] views(long offset, int len) {
+        ensureLoaded();
+        if (retired) {
+            return successorOrThrow().views(offset, len);
+        }
+        long end = offset + available(offset, len, length);
+        int[] pages = chunks;
+        if (end == offset) {
+            return new ByteBuffer[0];
+        }
+        int first = (int) (offset / PAGE_BYTES);
+        int last = (int) ((end - 1) / PAGE_BYTES);
+        ByteBuffer[] views = new ByteBuffer[last - first + 1];
+        for (int chunk = first; chunk <= last; chunk++) {
+            int from = chunk == first ? (int) (offset % PAGE_BYTES) : 0;
+            int to = chunk == last ? (int) ((end - 1) % PAGE_BYTES) + 1 : PAGE_BYTES;
+            long at = PageStore.offset(pages[chunk]) + from;
+            views[chunk - first] = store.segment(at).slice(PageStore.inSegment(at), to - from).asReadOnlyBuffer();
+        }
+        return views;
+    }
+
+    @Override
+    String text() {
+        return retired ? successorOrThrow().text() : super.text();
+    }
+}
@@ -0,0 +1,49 @@
+package com.machinecoding.FileSystemQuestion;
+
+/**
+ * Bounded, direct-mapped cache from a resolved path to its Node: every path hashes to one slot and
+ * a newer path simply takes it over. Entries are immutable, so racing readers and writers see
+ * either a whole entry or none, and a hit is allocation-free. Structural changes need no explicit
+ * invalidation: only empty directories and files can be removed, and removal marks the node
+ * deleted, so a cached node that is not deleted is still reachable at its path.
+ */
+class PathCache {
+
+    private static class Entry {
+        final String path;
+        final int hash;
+        final Node node;
+
+        Entry(String path, int hash, Node node) {
+            this.path = path;
+            this.hash = hash;
+            this.node = node;
+        }
+    }
+
+    private final Entry[] slots;
+
+    PathCache(int capacity) {
+        if (Integer.bitCount(capacity) != 1) {
+            throw new IllegalArgumentException("Capacity must be a power of two: " + capacity);
+        }
+        this.slots = new Entry[capacity];
+    }
+
+    // Node of path[0, end), hash being SegmentTable.hash(path, 0, end); null on a miss
+    Node get(String path, int end, int hash) {
+        Entry entry = slots[slot(hash)];
+        if (entry == null || entry.hash != hash || entry.path.length() != end || !path.regionMatches(0, entry.path, 0, end)) {
+            return null;
+        }
+        return entry.node.deleted ? null : entry.node;
+    }
+
+    void put(String path, int end, int hash, Node node) {
+        slots[slot(hash)] = new Entry(path.substring(0, end), hash, node);
+    }
+
+    private int slot(int hash) {
+        return (hash ^ (hash >>> 16)) & (slots.length - 1);
+    }
+}
@@ -0,0 +1,68 @@
+package com.machinecoding.FileSystemQuestion;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * One canonical String per path segment ever created, found from a range of a path without
+ * allocating. Children maps are keyed by these instances, so a lookup reuses their cached hash and
+ * equals() succeeds on identity. Segments are never dropped; the table only grows.
+ */
+class SegmentTable {
+
+    private volatile AtomicReferenceArray<String> slots = new AtomicReferenceArray<>(1024);
+    private int size; // guarded by this
+
+    // Same value as path.substring(start, end).hashCode()
+    static int hash(String path, int start, int end) {
+        int hash = 0;
+        for (int i = start; i < end; i++) hash = 31 * hash + path.charAt(i);
+        return hash;
+    }
+
+    // null if no segment with these characters was ever interned
+    String lookup(String path, int start, int end) {
+        return probe(slots, path, start, end, hash(path, start, end));
+    }
+
+    synchronized String intern(String path, int start, int end) {
+        int hash = hash(path, start, end);
+        String found = probe(slots, path, start, end, hash);
+        if (found != null) return found;
+
+        if ((size + 1) * 2 > slots.length()) {
+            AtomicReferenceArray<String> bigger = new AtomicReferenceArray<>(slots.length() * 2);
+            for (int i = 0; i < slots.length(); i++) {
+                String segment = slots.get(i);
+                if (segment != null) insert(bigger, segment);
+            }
+            slots = bigger;
+        }
+
+        String segment = path.substring(start, end);
+        insert(slots, segment);
+        size++;
+        return segment;
+    }
+
+    private static String probe(AtomicReferenceArray<String> table, String path, int start, int end, int hash) {
+        int mask = table.length() - 1;
+        for (int i = spread(hash) & mask; ; i = (i + 1) & mask) {
+            String segment = table.get(i);
+            if (segment == null) return null;
+            if (segment.hashCode() == hash && segment.length() == end - start && path.regionMatches(start, segment, 0, end - start)) {
+                return segment;
+            }
+        }
+    }
+
+    private static void insert(AtomicReferenceArray<String> table, String segment) {
+        int mask = table.length() - 1;
+        int i = spread(segment.hashCode()) & mask;
+        while (table.get(i) != null) i = (i + 1) & mask;
+        table.set(i, segment);
+    }
+
+    private static int spread(int hash) {
+        return hash ^ (hash >>> 16);
+    }
+}
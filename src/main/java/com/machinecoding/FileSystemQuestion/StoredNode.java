@@ -0,0 +1,41 @@
+package com.machinecoding.FileSystemQuestion;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A node backed by an entry in a {@link PageStore} directory page. A stored directory starts out
+ * unloaded and reads its entries the first time a path goes through it.
+ */
+class StoredNode extends Node {
+
+    // A run of removed entries in one directory page, free for a new entry
+    static class Hole {
+        long at;
+        int size;
+
+        Hole(long at, int size) {
+            this.at = at;
+            this.size = size;
+        }
+    }
+
+    final int page;   // Directories: first directory page
+    final long entry; // Offset of this node's entry in its parent's directory page; -1 for the root
+    final List<Hole> holes; // Directories only; guarded by this node's lock and the store
+
+    StoredNode(int page, long entry, boolean loaded) {
+        super(false, null);
+        this.page = page;
+        this.entry = entry;
+        this.loaded = loaded;
+        this.holes = new ArrayList<>();
+    }
+
+    StoredNode(long entry, PagedFileContent content) {
+        super(true, content);
+        this.page = 0;
+        this.entry = entry;
+        this.holes = null;
+    }
+}
@@ -0,0 +1,90 @@
+package com.machinecoding.TransactionQuestoin;
+
+import java.util.*;
+import java.util.stream.Collectors;
+
+/**
+ * Against a repository, starts from the clause with the fewest estimated rows and narrows those
+ * candidates clause by clause: a clause of similar size is intersected through its own index, a
+ * much larger one is cheaper to check row by row on the few candidates left. Estimates are counted
+ * with a growing limit, so a wide range clause is never fully counted just to learn it is wide.
+ */
+class ANDFilter implements Criteria{
+
+    // A clause at most this many times bigger than the current candidates is intersected rather than probed
+    private static final int INTERSECT_RATIO = 4;
+    private static final int FIRST_ESTIMATE_LIMIT = 256;
+
+    List<Criteria> criteriaList;
+    public ANDFilter(List<Criteria> criteriaList) {
+        this.criteriaList = criteriaList;
+    }
+
+    @Override
+    public boolean test(Transaction transaction) {
+        for (Criteria criteria : criteriaList) {
+            if (!criteria.test(transaction)) return false;
+        }
+        return true;
+    }
+
+    @Override
+    public List<Transaction> satisfy(List<Transaction> transactions) {
+        return transactions.stream().filter(this::test).collect(Collectors.toList());
+    }
+
+    @Override
+    public int[] rows(TransactionRepository repository) {
+        if (criteriaList.isEmpty()) {
+            return repository.scan(this);
+        }
+
+        // Stop once every clause close enough to the smallest one to be intersected has been counted exactly
+        int[] estimates = new int[criteriaList.size()];
+        for (long limit = FIRST_ESTIMATE_LIMIT; ; limit *= 8) {
+            int smallest = Integer.MAX_VALUE;
+            for (int i = 0; i < estimates.length; i++) {
+                estimates[i] = criteriaList.get(i).estimate(repository, (int) Math.min(limit, Integer.MAX_VALUE));
+                smallest = Math.min(smallest, estimates[i]);
+            }
+            if ((long) smallest * INTERSECT_RATIO < limit || limit >= repository.size()) break;
+        }
+
+        Integer[] order = new Integer[estimates.length];
+        for (int i = 0; i < order.length; i++) order[i] = i;
+        Arrays.sort(order, Comparator.comparingInt(i -> estimates[i]));
+
+        int[] candidates = criteriaList.get(order[0]).rows(repository);
+        for (int k = 1; k < order.length && candidates.length > 0; k++) {
+            Criteria criteria = criteriaList.get(order[k]);
+            if (estimates[order[k]] <= (long) candidates.length * INTERSECT_RATIO) {
+                candidates = PostingList.intersect(candidates, criteria.rows(repository));
+            } else {
+                candidates = repository.filter(candidates, criteria);
+            }
+        }
+        return candidates;
+    }
+
+    @Override
+    public int estimate(TransactionRepository repository, int limit) {
+        int estimate = repository.size();
+        for (Criteria criteria : criteriaList) {
+            estimate = Math.min(estimate, criteria.estimate(repository, limit));
+        }
+        return estimate;
+    }
+
+    @Override
+    public long[] bitmap(ColumnarTransactionStore store) {
+        if (criteriaList.isEmpty()) {
+            return store.matchAll(this);
+        }
+        long[] bitmap = criteriaList.get(0).bitmap(store);
+        for (int k = 1; k < criteriaList.size(); k++) {
+            long[] other = criteriaList.get(k).bitmap(store);
+            for (int i = 0; i < bitmap.length; i++) bitmap[i] &= other[i];
+        }
+        return bitmap;
+    }
+}
@@ -0,0 +1,44 @@
+package com.machinecoding.TransactionQuestoin;
+
+import java.util.*;
+import java.util.stream.Collectors;
+
+class AmountFilterCriteria implements Criteria{
+    Operator operator;
+    double amount;
+
+    public AmountFilterCriteria(Operator operator, double amount) {
+        this.operator = operator;
+        this.amount = amount;
+    }
+
+    @Override
+    public boolean test(Transaction transaction) {
+        return switch (operator){
+            case EQUAL -> transaction.amount == this.amount;
+            case GREATER_THAN -> transaction.amount > this.amount;
+            case LESS_THAN -> transaction.amount < this.amount;
+            default -> throw new IllegalStateException("Unexpected value: " + operator);
+        };
+    }
+
+    @Override
+    public List<Transaction> satisfy(List<Transaction> transactions) {
+        return transactions.stream().filter(this::test).collect(Collectors.toList());
+    }
+
+    @Override
+    public int[] rows(TransactionRepository repository) {
+        return repository.findByAmount(operator, amount);
+    }
+
+    @Override
+    public int estimate(TransactionRepository repository, int limit) {
+        return repository.countByAmount(operator, amount, limit);
+    }
+
+    @Override
+    public long[] bitmap(ColumnarTransactionStore store) {
+        return store.matchAmount(operator, amount);
+    }
+}
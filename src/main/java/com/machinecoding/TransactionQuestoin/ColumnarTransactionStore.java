@@ -0,0 +1,199 @@
+package com.machinecoding.TransactionQuestoin;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.*;
+
+/**
+ * Column-per-field transaction storage. Timestamps are epoch nanos (UTC) and amounts fixed-point
+ * longs with eight decimals, userIds are dictionary-encoded to int codes, and transaction ids are
+ * packed as UTF-8 bytes with an offsets column. No object is kept per row.
+ * <p>
+ * Both columns hold every row exactly, so filters agree with comparing the objects: a timestamp
+ * must fall between roughly the years 1678 and 2262, and an amount must read back as the same double from
+ * its units; anything else is rejected on append. A filter value that is not exact can only
+ * disagree with rows stored at its own units, and those all hold the same amount, so it is
+ * resolved once per filter instead of per row.
+ * <p>
+ * A filter is one branch-free pass over a primitive column that produces a bitmap of matching rows
+ * (bit {@code row % 64} of word {@code row / 64}); AND/OR combine bitmaps a word at a time.
+ */
+class ColumnarTransactionStore {
+
+    static final long AMOUNT_SCALE = 100_000_000L;
+    // Amounts strictly inside this bound fit in units; epoch seconds within this bound fit in nanos
+    static final double MAX_AMOUNT = (double) (Long.MAX_VALUE / AMOUNT_SCALE);
+    static final long MAX_SECONDS = Long.MAX_VALUE / 1_000_000_000L - 1;
+
+    private int size;
+    private long[] timestampNanos = new long[16];
+    private long[] amountUnits = new long[16];
+    private int[] userCodes = new int[16];
+    private int[] idOffsets = new int[17];
+    private byte[] idBytes = new byte[64];
+
+    private final Map<String, Integer> userDictionary = new HashMap<>();
+    private final List<String> users = new ArrayList<>();
+
+    ColumnarTransactionStore(List<Transaction> transactions) {
+        transactions.forEach(this::append);
+    }
+
+    void append(Transaction transaction) {
+        long units = exactUnits(transaction.amount);
+        long nanos = toNanos(transaction.timestamp);
+
+        if (size == timestampNanos.length) {
+            int capacity = size * 2;
+            timestampNanos = Arrays.copyOf(timestampNanos, capacity);
+            amountUnits = Arrays.copyOf(amountUnits, capacity);
+            userCodes = Arrays.copyOf(userCodes, capacity);
+            idOffsets = Arrays.copyOf(idOffsets, capacity + 1);
+        }
+
+        byte[] id = transaction.transactionId.getBytes(StandardCharsets.UTF_8);
+        int idStart = idOffsets[size];
+        if (idStart + id.length > idBytes.length) {
+            idBytes = Arrays.copyOf(idBytes, Math.max(idStart + id.length, idBytes.length * 2));
+        }
+        System.arraycopy(id, 0, idBytes, idStart, id.length);
+
+        timestampNanos[size] = nanos;
+        amountUnits[size] = units;
+        userCodes[size] = userDictionary.computeIfAbsent(transaction.userId, user -> {
+            users.add(user);
+            return users.size() - 1;
+        });
+        idOffsets[size + 1] = idStart + id.length;
+        size++;
+    }
+
+    int size() {
+        return size;
+    }
+
+    // Materializes one row, equal to the one appended
+    Transaction get(int row) {
+        String id = new String(idBytes, idOffsets[row], idOffsets[row + 1] - idOffsets[row], StandardCharsets.UTF_8);
+        return new Transaction(id, users.get(userCodes[row]), (double) amountUnits[row] / AMOUNT_SCALE, fromNanos(timestampNanos[row]));
+    }
+
+    List<Transaction> load(long[] bitmap) {
+        List<Transaction> result = new ArrayList<>();
+        for (int word = 0; word < bitmap.length; word++) {
+            for (long bits = bitmap[word]; bits != 0; bits &= bits - 1) {
+                result.add(get((word << 6) + Long.numberOfTrailingZeros(bits)));
+            }
+        }
+        return result;
+    }
+
+    static int count(long[] bitmap) {
+        int count = 0;
+        for (long word : bitmap) count += Long.bitCount(word);
+        return count;
+    }
+
+    static long toMicros(LocalDateTime timestamp) {
+        return timestamp.toEpochSecond(ZoneOffset.UTC) * 1_000_000 + timestamp.getNano() / 1_000;
+    }
+
+    static long toNanos(LocalDateTime timestamp) {
+        long seconds = timestamp.toEpochSecond(ZoneOffset.UTC);
+        if (Math.abs(seconds) > MAX_SECONDS) {
+            throw new IllegalArgumentException("Timestamp outside roughly the years 1678 to 2262: " + timestamp);
+        }
+        return seconds * 1_000_000_000L + timestamp.getNano();
+    }
+
+    static LocalDateTime fromNanos(long nanos) {
+        return LocalDateTime.ofEpochSecond(Math.floorDiv(nanos, 1_000_000_000L), Math.floorMod(nanos, 1_000_000_000), ZoneOffset.UTC);
+    }
+
+    // Rounded to the nearest unit; amounts that would not fit are rejected rather than saturated
+    static long toUnits(double amount) {
+        if (!(Math.abs(amount) < MAX_AMOUNT)) {
+            throw new IllegalArgumentException("Amount outside +/-" + MAX_AMOUNT + ": " + amount);
+        }
+        return Math.round(amount * AMOUNT_SCALE);
+    }
+
+    // Units that read back as exactly this amount; more than eight decimals is rejected, not rounded
+    static long exactUnits(double amount) {
+        long units = toUnits(amount);
+        if ((double) units / AMOUNT_SCALE != amount) {
+            throw new IllegalArgumentException("Amount has more than eight decimals: " + amount);
+        }
+        return units;
+    }
+
+    long[] matchUser(String userId) {
+        long[] bitmap = new long[words()];
+        Integer code = userDictionary.get(userId);
+        if (code == null) return bitmap;
+
+        int target = code;
+        for (int i = 0; i < size; i++) {
+            bitmap[i >>> 6] |= (userCodes[i] == target ? 1L : 0L) << i;
+        }
+        return bitmap;
+    }
+
+    long[] matchAmount(Operator operator, double amount) {
+        if (Double.isNaN(amount)) {
+            return new long[words()];
+        }
+        // Every row is strictly inside the bound, so beyond it the value compares like the bound itself
+        if (Math.abs(amount) >= MAX_AMOUNT) {
+            return compare(amountUnits, operator, amount > 0 ? Long.MAX_VALUE : Long.MIN_VALUE);
+        }
+
+        // Rows at exactly these units hold border, which may be on either side of the amount
+        long units = toUnits(amount);
+        double border = (double) units / AMOUNT_SCALE;
+        return switch (operator) {
+            case EQUAL -> border == amount ? compare(amountUnits, operator, units) : new long[words()];
+            case GREATER_THAN -> compare(amountUnits, operator, border > amount ? units - 1 : units);
+            case LESS_THAN -> compare(amountUnits, operator, border < amount ? units + 1 : units);
+        };
+    }
+
+    long[] matchTimestamp(Operator operator, LocalDateTime timestamp) {
+        long seconds = timestamp.toEpochSecond(ZoneOffset.UTC);
+        long value = seconds > MAX_SECONDS ? Long.MAX_VALUE
+                : seconds < -MAX_SECONDS ? Long.MIN_VALUE
+                : toNanos(timestamp);
+        return compare(timestampNanos, operator, value);
+    }
+
+    // One loop per operator, so the comparison is not re-dispatched for every row
+    private long[] compare(long[] column, Operator operator, long value) {
+        long[] bitmap = new long[words()];
+        switch (operator) {
+            case EQUAL -> {
+                for (int i = 0; i < size; i++) bitmap[i >>> 6] |= (column[i] == value ? 1L : 0L) << i;
+            }
+            case GREATER_THAN -> {
+                for (int i = 0; i < size; i++) bitmap[i >>> 6] |= (column[i] > value ? 1L : 0L) << i;
+            }
+            case LESS_THAN -> {
+                for (int i = 0; i < size; i++) bitmap[i >>> 6] |= (column[i] < value ? 1L : 0L) << i;
+            }
+        }
+        return bitmap;
+    }
+
+    // Fallback for criteria without a column filter: materializes and tests every row
+    long[] matchAll(Criteria criteria) {
+        long[] bitmap = new long[words()];
+        for (int i = 0; i < size; i++) {
+            if (criteria.test(get(i))) bitmap[i >>> 6] |= 1L << i;
+        }
+        return bitmap;
+    }
+
+    private int words() {
+        return (size + 63) >>> 6;
+    }
+}
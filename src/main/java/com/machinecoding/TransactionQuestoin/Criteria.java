@@ -0,0 +1,31 @@
+package com.machinecoding.TransactionQuestoin;
+
+import java.util.*;
+
+interface Criteria{
+    List<Transaction> satisfy(List<Transaction> transactions);
+
+    // Single-row check used by composite filters and scans; leaf criteria override it so no list is built per row
+    default boolean test(Transaction transaction) {
+        return !satisfy(List.of(transaction)).isEmpty();
+    }
+
+    // Matching repository rows in ascending order. Criteria backed by an index override this
+    default int[] rows(TransactionRepository repository) {
+        return repository.scan(this);
+    }
+
+    // Number of matching rows, used to plan composite filters. May stop counting at limit; unknown means every row
+    default int estimate(TransactionRepository repository, int limit) {
+        return repository.size();
+    }
+
+    default List<Transaction> satisfy(TransactionRepository repository) {
+        return repository.load(rows(repository));
+    }
+
+    // Bitmap of the store's matching rows. Criteria on a single column override this with a primitive scan
+    default long[] bitmap(ColumnarTransactionStore store) {
+        return store.matchAll(this);
+    }
+}
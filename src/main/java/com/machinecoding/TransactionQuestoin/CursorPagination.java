@@ -0,0 +1,67 @@
+package com.machinecoding.TransactionQuestoin;
+
+import java.util.*;
+
+class CursorPagination {
+
+    TransactionSource repository;
+    public CursorPagination() {
+        this(new TransactionRepository());
+    }
+
+    public CursorPagination(TransactionSource repository) {
+        this.repository = repository;
+    }
+
+    // Keyset pagination: the token encodes the sort key of the last row returned, so inserts never shift pages
+    public PaginatedResult getTransactionsWithPagination(String pageToken, int pageSize) {
+        if (pageSize < 1) {
+            throw new IllegalArgumentException("Page size must be positive: " + pageSize);
+        }
+        PageCursor after = pageToken == null || pageToken.isEmpty() ? null : PageCursor.decode(pageToken);
+        List<Transaction> transactions = repository.findPageAfter(after, pageSize);
+
+        // A short page is the last one
+        String nextPageToken = transactions.size() < pageSize ? null : PageCursor.of(transactions.getLast()).encode();
+        return new PaginatedResult(transactions, nextPageToken);
+    }
+
+    /**
+     * Most matches for which looking them all up beats walking the page order. Looking up m matches
+     * costs about m, while a walk over m matches spread through n rows steps past about
+     * pageSize * n / m rows to fill a page, so the lookup wins while m * m < pageSize * n.
+     */
+    static int selectiveRows(int size, int pageSize) {
+        return (int) Math.min(Integer.MAX_VALUE, Math.max(pageSize, (long) Math.sqrt((double) pageSize * size)));
+    }
+
+    /**
+     * Next page of transactions matching the criteria. Candidates are pulled one at a time and the
+     * scan stops at the pageSize-th match, whose key becomes the next token; the token is null once
+     * nothing is left to scan.
+     */
+    public PaginatedResult getTransactionsWithPagination(Criteria criteria, String pageToken, int pageSize) {
+        if (pageSize < 1) {
+            throw new IllegalArgumentException("Page size must be positive: " + pageSize);
+        }
+        PageCursor after = pageToken == null || pageToken.isEmpty() ? null : PageCursor.decode(pageToken);
+        // Only the in-memory repository has secondary indexes; other sources are always walked
+        Iterator<Transaction> candidates;
+        int selective = selectiveRows(repository.size(), pageSize);
+        if (repository instanceof TransactionRepository indexed && criteria.estimate(indexed, selective) < selective) {
+            // One row past the page, so a full page knows whether another follows
+            candidates = indexed.inPageOrder(criteria.rows(indexed), after, (int) Math.min(pageSize + 1L, Integer.MAX_VALUE));
+        } else {
+            candidates = repository.inPageOrder(after);
+        }
+
+        List<Transaction> transactions = new ArrayList<>(Math.min(pageSize, repository.size()));
+        while (transactions.size() < pageSize && candidates.hasNext()) {
+            Transaction transaction = candidates.next();
+            if (criteria.test(transaction)) transactions.add(transaction);
+        }
+
+        String nextPageToken = candidates.hasNext() ? PageCursor.of(transactions.getLast()).encode() : null;
+        return new PaginatedResult(transactions, nextPageToken);
+    }
+}
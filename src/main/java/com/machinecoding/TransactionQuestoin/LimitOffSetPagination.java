@@ -0,0 +1,33 @@
+package com.machinecoding.TransactionQuestoin;
+
+import java.util.*;
+
+class LimitOffSetPagination {
+
+    TransactionSource repository;
+    int limit;
+    int offset = 0;
+
+    public LimitOffSetPagination(int limit) {
+        this(new TransactionRepository(), limit);
+    }
+
+    public LimitOffSetPagination(TransactionSource repository, int limit) {
+        this.repository = repository;
+        this.limit = limit;
+    }
+
+    public List<Transaction> getTransactionsWithLimitOffset(int offset) {
+        return repository.findRange(offset, limit);
+    }
+
+    public List<Transaction> getNextPage() {
+        if(offset >= repository.size()){
+            return Collections.emptyList();
+        }
+        List<Transaction> transactions = repository.findRange(offset, limit);
+        offset += limit;
+        return transactions;
+    }
+
+}
@@ -0,0 +1,60 @@
+package com.machinecoding.TransactionQuestoin;
+
+import java.util.*;
+import java.util.stream.Collectors;
+
+// Against a repository, unions the clauses' posting lists, or scans once if they would cover most rows anyway
+class ORFilter implements Criteria{
+
+    List<Criteria> criteriaList;
+    public ORFilter(List<Criteria> criteriaList) {
+        this.criteriaList = criteriaList;
+    }
+
+    @Override
+    public boolean test(Transaction transaction) {
+        for (Criteria criteria : criteriaList) {
+            if (criteria.test(transaction)) return true;
+        }
+        return false;
+    }
+
+    @Override
+    public List<Transaction> satisfy(List<Transaction> transactions) {
+        return transactions.stream().filter(this::test).collect(Collectors.toList());
+    }
+
+    @Override
+    public int[] rows(TransactionRepository repository) {
+        int half = repository.size() / 2;
+        if (criteriaList.size() > 1 && estimate(repository, half) >= half) {
+            return repository.scan(this);
+        }
+
+        int[] rows = new int[0];
+        for (Criteria criteria : criteriaList) {
+            rows = PostingList.union(rows, criteria.rows(repository));
+        }
+        return rows;
+    }
+
+    @Override
+    public int estimate(TransactionRepository repository, int limit) {
+        long estimate = 0;
+        for (Criteria criteria : criteriaList) {
+            if (estimate >= limit) break;
+            estimate += criteria.estimate(repository, (int) (limit - estimate));
+        }
+        return (int) Math.min(estimate, repository.size());
+    }
+
+    @Override
+    public long[] bitmap(ColumnarTransactionStore store) {
+        long[] bitmap = new long[(store.size() + 63) >>> 6];
+        for (Criteria criteria : criteriaList) {
+            long[] other = criteria.bitmap(store);
+            for (int i = 0; i < bitmap.length; i++) bitmap[i] |= other[i];
+        }
+        return bitmap;
+    }
+}
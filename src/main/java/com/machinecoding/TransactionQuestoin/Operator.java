@@ -0,0 +1,7 @@
+package com.machinecoding.TransactionQuestoin;
+
+enum Operator{
+    EQUAL,
+    GREATER_THAN,
+    LESS_THAN
+}
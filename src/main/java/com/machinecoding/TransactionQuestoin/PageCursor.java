@@ -0,0 +1,58 @@
+package com.machinecoding.TransactionQuestoin;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.*;
+
+/**
+ * Position in the (timestamp, transactionId) order that cursor pagination walks. Handed to clients
+ * as an opaque URL-safe token, so the sort key can change without breaking their code.
+ */
+class PageCursor implements Comparable<PageCursor> {
+    private static final byte VERSION = 1;
+
+    final LocalDateTime timestamp;
+    final String transactionId;
+
+    PageCursor(LocalDateTime timestamp, String transactionId) {
+        this.timestamp = timestamp;
+        this.transactionId = transactionId;
+    }
+
+    static PageCursor of(Transaction transaction) {
+        return new PageCursor(transaction.timestamp, transaction.transactionId);
+    }
+
+    @Override
+    public int compareTo(PageCursor other) {
+        int byTime = timestamp.compareTo(other.timestamp);
+        return byTime != 0 ? byTime : transactionId.compareTo(other.transactionId);
+    }
+
+    String encode() {
+        byte[] id = transactionId.getBytes(StandardCharsets.UTF_8);
+        ByteBuffer buffer = ByteBuffer.allocate(1 + Long.BYTES + Integer.BYTES + id.length)
+                .put(VERSION)
+                .putLong(timestamp.toEpochSecond(ZoneOffset.UTC))
+                .putInt(timestamp.getNano())
+                .put(id);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(buffer.array());
+    }
+
+    static PageCursor decode(String token) {
+        try {
+            ByteBuffer buffer = ByteBuffer.wrap(Base64.getUrlDecoder().decode(token));
+            if (buffer.get() != VERSION) {
+                throw new IllegalArgumentException("Unsupported page token version");
+            }
+            LocalDateTime timestamp = LocalDateTime.ofEpochSecond(buffer.getLong(), buffer.getInt(), ZoneOffset.UTC);
+            byte[] id = new byte[buffer.remaining()];
+            buffer.get(id);
+            return new PageCursor(timestamp, new String(id, StandardCharsets.UTF_8));
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Invalid page token: " + token, e);
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package com.machinecoding.TransactionQuestoin;
+
+import java.util.*;
+
+class PaginatedResult{
+    List<Transaction> transactions;
+    String nextPageToken;
+
+    PaginatedResult(List<Transaction> transactions, String nextPageToken) {
+        this.transactions = transactions;
+        this.nextPageToken = nextPageToken;
+    }
+
+    public String toString(){
+        return "PaginatedResult{" +
+                "transactions=" + transactions +
+                ", nextPageToken='" + nextPageToken + '\'' +
+                '}';
+    }
+}
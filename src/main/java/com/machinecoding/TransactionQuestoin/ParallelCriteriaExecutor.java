@@ -0,0 +1,142 @@
+package com.machinecoding.TransactionQuestoin;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.IntConsumer;
+
+/**
+ * Runs a whole Criteria tree over a transaction source on a ForkJoinPool, for batch jobs that must
+ * look at every row.
+ * <p>
+ * The rows are a {@link Spliterator.OfInt} over row numbers that tasks split in halves until a
+ * chunk is at most {@link #CHUNK_ROWS} rows. Each chunk is tested with {@link Criteria#test}, which
+ * checks one row without allocating, and collects its matching rows. A task appends its right half
+ * to its left half, so the result is in row order whatever the pool size.
+ */
+class ParallelCriteriaExecutor {
+
+    // Below this many rows a task filters its chunk itself
+    static final int CHUNK_ROWS = 16_384;
+
+    private final ForkJoinPool pool;
+
+    ParallelCriteriaExecutor(ForkJoinPool pool) {
+        this.pool = pool;
+    }
+
+    // Row numbers [from, to); trySplit hands out the first half
+    static class RowSpliterator implements Spliterator.OfInt {
+        private int from;
+        private final int to;
+
+        RowSpliterator(int from, int to) {
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        public OfInt trySplit() {
+            int mid = (from + to) >>> 1;
+            if (mid == from) return null;
+            RowSpliterator prefix = new RowSpliterator(from, mid);
+            from = mid;
+            return prefix;
+        }
+
+        @Override
+        public boolean tryAdvance(IntConsumer action) {
+            if (from >= to) return false;
+            action.accept(from++);
+            return true;
+        }
+
+        @Override
+        public void forEachRemaining(IntConsumer action) {
+            for (int row = from; row < to; row++) action.accept(row);
+            from = to;
+        }
+
+        @Override
+        public long estimateSize() {
+            return to - from;
+        }
+
+        @Override
+        public int characteristics() {
+            return ORDERED | SIZED | SUBSIZED | DISTINCT | NONNULL | IMMUTABLE;
+        }
+    }
+
+    @SuppressWarnings("serial")
+    private static class FilterTask extends RecursiveTask<PostingList> {
+        final TransactionSource source;
+        final Criteria criteria;
+        final Spliterator.OfInt rows;
+
+        FilterTask(TransactionSource source, Criteria criteria, Spliterator.OfInt rows) {
+            this.source = source;
+            this.criteria = criteria;
+            this.rows = rows;
+        }
+
+        @Override
+        protected PostingList compute() {
+            Spliterator.OfInt prefix;
+            if (rows.estimateSize() > CHUNK_ROWS && (prefix = rows.trySplit()) != null) {
+                FilterTask left = new FilterTask(source, criteria, prefix);
+                left.fork();
+                PostingList right = new FilterTask(source, criteria, rows).compute();
+                PostingList matches = left.join();
+                matches.addAll(right);
+                return matches;
+            }
+
+            PostingList matches = new PostingList();
+            rows.forEachRemaining((int row) -> {
+                if (criteria.test(source.get(row))) matches.add(row);
+            });
+            return matches;
+        }
+    }
+
+    // Matching row numbers in ascending order
+    int[] rows(Criteria criteria, TransactionSource source) {
+        return pool.invoke(new FilterTask(source, criteria, new RowSpliterator(0, source.size()))).toArray();
+    }
+
+    List<Transaction> satisfy(Criteria criteria, TransactionSource source) {
+        int[] rows = rows(criteria, source);
+        List<Transaction> result = new ArrayList<>(rows.length);
+        for (int row : rows) result.add(source.get(row));
+        return result;
+    }
+
+    // Test the logic: same rows, in the same order, across pool sizes
+    public static void main(String[] args) {
+        TransactionRepository repository = new TransactionRepository(TransactionBenchmark.randomTransactions(2_000_000, 10_000, 5));
+        Criteria audit = new ANDFilter(List.of(
+                new AmountFilterCriteria(Operator.GREATER_THAN, 2_500.0),
+                new ORFilter(List.of(
+                        new TimeStampFilterCriteria(Operator.LESS_THAN, TransactionBenchmark.START.plusDays(3)),
+                        new AmountFilterCriteria(Operator.GREATER_THAN, 9_000.0)))));
+
+        int[] expected = repository.scan(audit);
+        for (int threads : new int[]{1, 2, 4, 8}) {
+            ForkJoinPool pool = new ForkJoinPool(threads);
+            ParallelCriteriaExecutor executor = new ParallelCriteriaExecutor(pool);
+            executor.rows(audit, repository); // warm-up
+
+            long start = System.nanoTime();
+            int[] rows = executor.rows(audit, repository);
+            long elapsed = System.nanoTime() - start;
+
+            System.out.printf("threads=%d matches=%d same as sequential=%b in %.1f ms%n",
+                    threads, rows.length, Arrays.equals(expected, rows), elapsed / 1e6);
+            pool.shutdown();
+        }
+    }
+}
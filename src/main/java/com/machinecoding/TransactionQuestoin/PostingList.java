@@ -0,0 +1,84 @@
+package com.machinecoding.TransactionQuestoin;
+
+import java.util.Arrays;
+
+// Growable list of repository row numbers; rows are appended in increasing order, so it stays sorted
+class PostingList {
+    private int[] rows = new int[4];
+    private int size;
+
+    void add(int row) {
+        if (size == rows.length) rows = Arrays.copyOf(rows, size * 2);
+        rows[size++] = row;
+    }
+
+    void addAll(PostingList other) {
+        if (size + other.size > rows.length) rows = Arrays.copyOf(rows, Math.max(size + other.size, size * 2));
+        System.arraycopy(other.rows, 0, rows, size, other.size);
+        size += other.size;
+    }
+
+    int size() {
+        return size;
+    }
+
+    int get(int index) {
+        return rows[index];
+    }
+
+    int[] toArray() {
+        return Arrays.copyOf(rows, size);
+    }
+
+    // Rows in both sorted arrays; binary-searches the larger one when the sizes are far apart
+    static int[] intersect(int[] a, int[] b) {
+        if (a.length > b.length) {
+            int[] swap = a;
+            a = b;
+            b = swap;
+        }
+
+        int[] result = new int[a.length];
+        int size = 0;
+        if ((long) a.length * 16 < b.length) {
+            int from = 0;
+            for (int row : a) {
+                int at = Arrays.binarySearch(b, from, b.length, row);
+                if (at >= 0) {
+                    result[size++] = row;
+                    from = at + 1;
+                } else {
+                    from = -at - 1;
+                }
+            }
+        } else {
+            for (int i = 0, j = 0; i < a.length && j < b.length; ) {
+                if (a[i] < b[j]) i++;
+                else if (a[i] > b[j]) j++;
+                else {
+                    result[size++] = a[i];
+                    i++;
+                    j++;
+                }
+            }
+        }
+        return Arrays.copyOf(result, size);
+    }
+
+    // Rows in either sorted array, each once
+    static int[] union(int[] a, int[] b) {
+        int[] result = new int[a.length + b.length];
+        int size = 0, i = 0, j = 0;
+        while (i < a.length && j < b.length) {
+            if (a[i] < b[j]) result[size++] = a[i++];
+            else if (a[i] > b[j]) result[size++] = b[j++];
+            else {
+                result[size++] = a[i++];
+                j++;
+            }
+        }
+        while (i < a.length) result[size++] = a[i++];
+        while (j < b.length) result[size++] = b[j++];
+        return Arrays.copyOf(result, size);
+    }
+}
@@ -0,0 +1,45 @@
+package com.machinecoding.TransactionQuestoin;
+
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.stream.Collectors;
+
+class TimeStampFilterCriteria implements Criteria {
+    Operator operator;
+    LocalDateTime timestamp;
+
+    public TimeStampFilterCriteria(Operator operator, LocalDateTime timestamp) {
+        this.operator = operator;
+        this.timestamp = timestamp;
+    }
+
+    @Override
+    public boolean test(Transaction transaction) {
+        return switch (operator) {
+            case EQUAL -> transaction.timestamp.equals(this.timestamp);
+            case GREATER_THAN -> transaction.timestamp.isAfter(this.timestamp);
+            case LESS_THAN -> transaction.timestamp.isBefore(this.timestamp);
+            default -> true;
+        };
+    }
+
+    @Override
+    public List<Transaction> satisfy(List<Transaction> transactions) {
+        return transactions.stream().filter(this::test).collect(Collectors.toList());
+    }
+
+    @Override
+    public int[] rows(TransactionRepository repository) {
+        return repository.findByTimestamp(operator, timestamp);
+    }
+
+    @Override
+    public int estimate(TransactionRepository repository, int limit) {
+        return repository.countByTimestamp(operator, timestamp, limit);
+    }
+
+    @Override
+    public long[] bitmap(ColumnarTransactionStore store) {
+        return store.matchTimestamp(operator, timestamp);
+    }
+}
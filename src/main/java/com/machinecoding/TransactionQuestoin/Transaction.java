@@ -0,0 +1,26 @@
+package com.machinecoding.TransactionQuestoin;
+
+import java.time.LocalDateTime;
+
+class Transaction{
+    String transactionId;
+    String userId;
+    Double amount;
+    LocalDateTime timestamp;
+
+    public Transaction(String transactionId, String userId, Double amount, LocalDateTime timestamp) {
+        this.transactionId = transactionId;
+        this.userId = userId;
+        this.amount = amount;
+        this.timestamp = timestamp;
+    }
+
+    public String toString(){
+        return "Transaction{" +
+                "transactionId='" + transactionId + '\'' +
+                ", userId='" + userId + '\'' +
+                ", amount=" + amount +
+                ", timestamp=" + timestamp +
+                '}';
+    }
+}
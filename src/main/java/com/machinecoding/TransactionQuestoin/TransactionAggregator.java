@@ -0,0 +1,190 @@
+package com.machinecoding.TransactionQuestoin;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.*;
+
+/**
+ * Dashboard aggregates kept up to date as transactions are inserted, so reading them is a lookup:
+ * per-user totals, volume over a sliding window of event time, and the top-K users by total.
+ * <p>
+ * Amounts are summed as {@link ColumnarTransactionStore} fixed-point units so millions of additions
+ * do not drift. The window is a ring of time buckets ending at the newest transaction seen; moving
+ * it forward expires the buckets it leaves behind from a running sum, so an insert touches at most
+ * one bucket per bucket of time passed. Users are ranked in a TreeSet ordered by (total, userId),
+ * and an insert takes its user out and puts it back, so the ranking stays exact in O(log users)
+ * whether the total grew or shrank; the top-K is the first K entries.
+ * <p>
+ * An amount that cannot be summed is rejected by {@link #validate} before the repository stores the
+ * transaction, so every stored transaction is counted.
+ */
+class TransactionAggregator implements TransactionListener {
+
+    private static class UserTotal {
+        final String userId;
+        long units;
+        int count;
+
+        UserTotal(String userId) {
+            this.userId = userId;
+        }
+    }
+
+    private final Map<String, UserTotal> totals = new HashMap<>();
+
+    private final int topK;
+    // Highest total first
+    private final NavigableSet<UserTotal> ranking = new TreeSet<>((a, b) ->
+            a.units != b.units ? Long.compare(b.units, a.units) : a.userId.compareTo(b.userId));
+
+    private final long bucketMicros;
+    private final long[] bucketUnits;
+    private final int[] bucketCounts;
+    private long newestBucket = Long.MIN_VALUE;
+    private long windowUnits;
+    private int windowCount;
+
+    TransactionAggregator(int topK, Duration window, Duration bucket) {
+        if (topK < 1 || bucket.toNanos() < 1_000 || window.toNanos() % bucket.toNanos() != 0 || window.compareTo(bucket) < 0) {
+            throw new IllegalArgumentException("Need a positive top-K and a window that is a whole number of buckets of at least 1us");
+        }
+        this.topK = topK;
+        this.bucketMicros = bucket.toNanos() / 1_000;
+        int buckets = (int) (window.toNanos() / bucket.toNanos());
+        this.bucketUnits = new long[buckets];
+        this.bucketCounts = new int[buckets];
+    }
+
+    // Out of range and NaN amounts fail here, before anything is stored
+    @Override
+    public void validate(Transaction transaction) {
+        ColumnarTransactionStore.toUnits(transaction.amount);
+    }
+
+    @Override
+    public void onInsert(Transaction transaction) {
+        long units = ColumnarTransactionStore.toUnits(transaction.amount);
+
+        UserTotal total = totals.computeIfAbsent(transaction.userId, UserTotal::new);
+        ranking.remove(total); // before its sort key changes
+        total.units += units;
+        total.count++;
+        ranking.add(total);
+
+        addToWindow(ColumnarTransactionStore.toMicros(transaction.timestamp), units);
+    }
+
+    private void addToWindow(long micros, long units) {
+        int buckets = bucketUnits.length;
+        long bucket = Math.floorDiv(micros, bucketMicros);
+        if (newestBucket == Long.MIN_VALUE) newestBucket = bucket;
+
+        // Slide forward, expiring every bucket the window leaves behind
+        if (bucket > newestBucket) {
+            long expiring = Math.min(bucket - newestBucket, buckets);
+            for (long k = 1; k <= expiring; k++) {
+                int slot = Math.floorMod(newestBucket + k, buckets);
+                windowUnits -= bucketUnits[slot];
+                windowCount -= bucketCounts[slot];
+                bucketUnits[slot] = 0;
+                bucketCounts[slot] = 0;
+            }
+            newestBucket = bucket;
+        }
+
+        // Too late for the window; it still counts towards the user's total
+        if (bucket <= newestBucket - buckets) return;
+
+        int slot = Math.floorMod(bucket, buckets);
+        bucketUnits[slot] += units;
+        bucketCounts[slot]++;
+        windowUnits += units;
+        windowCount++;
+    }
+
+    double userTotal(String userId) {
+        UserTotal total = totals.get(userId);
+        return total == null ? 0 : (double) total.units / ColumnarTransactionStore.AMOUNT_SCALE;
+    }
+
+    int userCount(String userId) {
+        UserTotal total = totals.get(userId);
+        return total == null ? 0 : total.count;
+    }
+
+    // Volume of the buckets within one window of the newest transaction
+    double windowVolume() {
+        return (double) windowUnits / ColumnarTransactionStore.AMOUNT_SCALE;
+    }
+
+    int windowCount() {
+        return windowCount;
+    }
+
+    // userId to total, highest first
+    Map<String, Double> topSpenders() {
+        Map<String, Double> result = new LinkedHashMap<>();
+        for (UserTotal total : ranking) {
+            if (result.size() == topK) break;
+            result.put(total.userId, (double) total.units / ColumnarTransactionStore.AMOUNT_SCALE);
+        }
+        return result;
+    }
+
+    // Test the logic: 1M inserts, then dashboard reads checked against a full recomputation
+    public static void main(String[] args) {
+        List<Transaction> transactions = TransactionBenchmark.randomTransactions(1_000_000, 10_000, 3);
+        TransactionRepository repository = new TransactionRepository(List.of());
+        TransactionAggregator aggregator = new TransactionAggregator(5, Duration.ofHours(1), Duration.ofMinutes(1));
+        repository.addListener(aggregator);
+
+        long start = 0;
+        for (int run = 0; run < 2; run++) { // the first run is warm-up
+            TransactionAggregator timed = new TransactionAggregator(5, Duration.ofHours(1), Duration.ofMinutes(1));
+            start = System.nanoTime();
+            for (Transaction transaction : transactions) timed.onInsert(transaction);
+        }
+        System.out.printf("%.0f ns per insert%n", (double) (System.nanoTime() - start) / transactions.size());
+
+        transactions.forEach(repository::add);
+
+        Map<String, Double> top = null;
+        double window = 0, user42 = 0;
+        for (int run = 0; run < 1_000; run++) {
+            start = System.nanoTime();
+            top = aggregator.topSpenders();
+            window = aggregator.windowVolume();
+            user42 = aggregator.userTotal("user42");
+        }
+        System.out.printf("Dashboard read in %.1f us%n", (System.nanoTime() - start) / 1e3);
+        System.out.println("Top spenders: " + top);
+        System.out.printf("Last hour: %d transactions, volume %.2f%n", aggregator.windowCount(), window);
+        System.out.printf("user42: %d transactions, total %.2f%n", aggregator.userCount("user42"), user42);
+
+        // A refund can drop a user out of the top-K straight away
+        String leader = top.keySet().iterator().next();
+        repository.add(new Transaction("REFUND", leader, -top.get(leader), transactions.getLast().timestamp));
+        System.out.println("After refunding " + leader + ": " + aggregator.topSpenders().keySet());
+        try {
+            repository.add(new Transaction("HUGE", "user1", 1e12, transactions.getLast().timestamp));
+        } catch (IllegalArgumentException e) {
+            System.out.println("Rejected, stored rows still " + repository.size() + ": " + e.getMessage());
+        }
+        // Reverse the refund, so the scan below still applies
+        repository.add(new Transaction("REFUND2", leader, top.get(leader), transactions.getLast().timestamp));
+
+        // The same numbers from a scan
+        Map<String, Double> scanned = new HashMap<>();
+        for (Transaction transaction : transactions) scanned.merge(transaction.userId, transaction.amount, Double::sum);
+        List<String> expectedTop = scanned.entrySet().stream()
+                .sorted(Map.Entry.<String, Double>comparingByValue().reversed())
+                .limit(5).map(Map.Entry::getKey).toList();
+        // The window is the newest transaction's minute and the 59 before it
+        LocalDateTime windowStart = transactions.getLast().timestamp.truncatedTo(ChronoUnit.MINUTES).minusMinutes(59);
+        double expectedWindow = transactions.stream().filter(t -> !t.timestamp.isBefore(windowStart)).mapToDouble(t -> t.amount).sum();
+        System.out.println("Scan agrees: top=" + expectedTop.equals(new ArrayList<>(top.keySet()))
+                + " window=" + (Math.abs(expectedWindow - window) < 1e-6)
+                + " user42=" + (Math.abs(scanned.get("user42") - user42) < 1e-6));
+    }
+}
@@ -0,0 +1,119 @@
+package com.machinecoding.TransactionQuestoin;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Times criteria resolved by full scan against the same criteria resolved through the repository's
+ * indexes and as bitmaps over the columnar store, and compares heap per row of the row objects and
+ * the columns. The pom has no JMH dependency, so this is a plain warm-up-then-measure loop with
+ * System.nanoTime.
+ */
+public class TransactionBenchmark {
+
+    static final LocalDateTime START = LocalDateTime.of(2024, 1, 1, 0, 0);
+
+    // One transaction per second from START, whole-cent amounts up to 10k, users picked uniformly
+    static List<Transaction> randomTransactions(int count, int users, long seed) {
+        Random random = new Random(seed);
+        List<Transaction> transactions = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            transactions.add(new Transaction("T" + i, "user" + random.nextInt(users),
+                    random.nextInt(1_000_000) / 100.0, START.plusSeconds(i)));
+        }
+        return transactions;
+    }
+
+    static long time(Runnable query, int iterations) {
+        for (int i = 0; i < iterations; i++) query.run(); // warm-up
+        long start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) query.run();
+        return (System.nanoTime() - start) / iterations;
+    }
+
+    static long usedHeap() {
+        for (int i = 0; i < 3; i++) System.gc();
+        return Runtime.getRuntime().totalMemory() - Runtime.getRuntime().freeMemory();
+    }
+
+    static List<String> ids(List<Transaction> transactions) {
+        return transactions.stream().map(transaction -> transaction.transactionId).toList();
+    }
+
+    // Follows next-page tokens to the end; pages[0] receives the number of pages fetched
+    static List<Transaction> pageThrough(CursorPagination pagination, Criteria criteria, int pageSize, int[] pages) {
+        List<Transaction> matched = new ArrayList<>();
+        String token = null;
+        pages[0] = 0;
+        do {
+            PaginatedResult page = pagination.getTransactionsWithPagination(criteria, token, pageSize);
+            matched.addAll(page.transactions);
+            token = page.nextPageToken;
+            pages[0]++;
+        } while (token != null);
+        return matched;
+    }
+
+    public static void main(String[] args) {
+        int rows = 1_000_000;
+        long base = usedHeap();
+        List<Transaction> transactions = randomTransactions(rows, 10_000, 3);
+        long rowHeap = usedHeap() - base;
+        ColumnarTransactionStore columns = new ColumnarTransactionStore(transactions);
+        long columnHeap = usedHeap() - base - rowHeap;
+        System.out.printf("Heap per row: objects=%d bytes  columns=%d bytes%n", rowHeap / rows, columnHeap / rows);
+
+        TransactionRepository repository = new TransactionRepository(transactions);
+
+        List<Criteria> queries = List.of(
+                new UserFilterCriteria("user42"),
+                new AmountFilterCriteria(Operator.GREATER_THAN, 9_990.0),
+                new TimeStampFilterCriteria(Operator.LESS_THAN, START.plusSeconds(1_000)),
+                new ANDFilter(List.of(
+                        new AmountFilterCriteria(Operator.GREATER_THAN, 5_000.0),
+                        new TimeStampFilterCriteria(Operator.GREATER_THAN, START.plusSeconds(500_000)),
+                        new UserFilterCriteria("user42"))),
+                new ORFilter(List.of(
+                        new UserFilterCriteria("user42"),
+                        new UserFilterCriteria("user43"),
+                        new AmountFilterCriteria(Operator.GREATER_THAN, 9_990.0))));
+
+        for (Criteria criteria : queries) {
+            List<Transaction> indexed = criteria.satisfy(repository);
+            if (!indexed.equals(criteria.satisfy(transactions))) throw new IllegalStateException("Index and scan disagree for " + criteria);
+            if (!ids(indexed).equals(ids(columns.load(criteria.bitmap(columns))))) throw new IllegalStateException("Columns and scan disagree for " + criteria);
+
+            long scanNanos = time(() -> criteria.satisfy(transactions), 10);
+            long indexNanos = time(() -> criteria.satisfy(repository), 10);
+            long columnNanos = time(() -> criteria.bitmap(columns), 10);
+            System.out.printf("%-24s rows=%-5d scan=%8.3f ms  index=%8.3f ms  columns=%8.3f ms (%.0f M rows/s)%n",
+                    criteria.getClass().getSimpleName(), indexed.size(), scanNanos / 1e6, indexNanos / 1e6,
+                    columnNanos / 1e6, rows / (columnNanos / 1e3));
+        }
+
+        // A page deep into the history costs the same as the first one
+        CursorPagination pagination = new CursorPagination(repository);
+        for (int depth : new int[]{0, 500_000, 999_000}) {
+            String token = depth == 0 ? null : PageCursor.of(transactions.get(depth)).encode();
+            long pageNanos = time(() -> pagination.getTransactionsWithPagination(token, 100), 1_000);
+            System.out.printf("Cursor page of 100 after row %-7d %6.2f us%n", depth, pageNanos / 1e3);
+        }
+
+        // Paging through a selective, a middling and a broad filter: every page resumes where the last one stopped
+        List<Criteria> filters = List.of(
+                new ANDFilter(List.of(new UserFilterCriteria("user42"), new AmountFilterCriteria(Operator.GREATER_THAN, 5_000.0))),
+                new AmountFilterCriteria(Operator.GREATER_THAN, 9_900.0),
+                new AmountFilterCriteria(Operator.GREATER_THAN, 5_000.0));
+        for (Criteria criteria : filters) {
+            int[] pages = new int[1];
+            List<Transaction> matched = pageThrough(pagination, criteria, 100, pages);
+            if (!matched.equals(criteria.satisfy(transactions))) throw new IllegalStateException("Paging lost rows for " + criteria);
+
+            long elapsed = time(() -> pageThrough(pagination, criteria, 100, pages), 10);
+            System.out.printf("%-24s %6d rows over %5d pages in %8.2f ms (%.1f us/page)%n",
+                    criteria.getClass().getSimpleName(), matched.size(), pages[0], elapsed / 1e6, elapsed / 1e3 / pages[0]);
+        }
+    }
+}
@@ -0,0 +1,10 @@
+package com.machinecoding.TransactionQuestoin;
+
+// Told about every transaction added to a repository, in insertion order
+interface TransactionListener {
+    // Throws if onInsert could not take the transaction; called before the repository stores it
+    default void validate(Transaction transaction) {
+    }
+
+    void onInsert(Transaction transaction);
+}
@@ -0,0 +1,370 @@
+package com.machinecoding.TransactionQuestoin;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.*;
+
+/**
+ * Append-only transaction history in a memory-mapped file of fixed-width records, with a sidecar
+ * index file listing the rows in (timestamp, transactionId) order.
+ * <p>
+ * Nothing is loaded on open: reads decode only the records they touch, straight from the mapping,
+ * so a restart costs the same however long the history is and the OS pages in just what the
+ * paginators read.
+ * <p>
+ * Both files start with a 64 byte header whose first long is the committed count. A log record is
+ * the transaction id and user id as length-prefixed UTF-8 (at most 31 and 23 bytes), the amount as
+ * {@link ColumnarTransactionStore} fixed-point units, and the timestamp as UTC epoch second and nano.
+ * An index entry is the epoch second, nano and row; ties are broken by the id stored in the log.
+ * Amounts with more than eight decimals are rejected, so every record reads back as appended.
+ * <p>
+ * The index is a main run plus a late run of at most {@link #LATE_CAPACITY} entries, each sorted,
+ * and pages merge the two as they go. An append in timestamp order extends the main run and a late
+ * one is shifted into place in the late run; a full late run is merged into the main run, so a late
+ * arrival costs at most LATE_CAPACITY moves plus its share of one merge. The index header holds the
+ * count, the main run's length and a flag set while merging. The log count is bumped before the
+ * index is touched and the index count only after, so an append or merge cut short leaves the index
+ * out of step with the log, and it is rebuilt from the log on the next open.
+ * <p>
+ * A third file is an open-addressing hash table of rows keyed by transaction id, at most half full,
+ * so a duplicate id is rejected like in {@link TransactionRepository} without loading the history.
+ * It is kept up to date the same way as the index, and also rebuilt when opened with a capacity that
+ * needs a different number of slots; the slot count is the header's second long.
+ */
+class TransactionLog implements TransactionSource, AutoCloseable {
+
+    static final int HEADER_BYTES = 64;
+    static final int RECORD_BYTES = 80;
+    static final int INDEX_BYTES = 16;
+    static final int ID_SLOT_BYTES = 4; // Row + 1; 0 is empty
+    static final int LATE_CAPACITY = 4096;
+
+    private static final int ID = 0, USER = 32, AMOUNT = 56, SECOND = 64, NANO = 72;
+    private static final int MAX_ID_BYTES = 31, MAX_USER_BYTES = 23;
+    private static final int COUNT = 0, MAIN = 8, MERGING = 16; // Index header
+
+    private final FileChannel logChannel;
+    private final FileChannel indexChannel;
+    private final FileChannel idChannel;
+    private final MappedByteBuffer log;
+    private final MappedByteBuffer index;
+    private final MappedByteBuffer ids;
+    private final int idMask;
+    private final int maxRecords;
+    private int size;
+    private int mainCount; // Index entries in the main run; the rest are in the late run
+
+    TransactionLog(Path directory, int maxRecords) throws IOException {
+        long logBytes = HEADER_BYTES + (long) maxRecords * RECORD_BYTES;
+        if (maxRecords <= 0 || logBytes > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Log capacity must fit in one mapping");
+        }
+        this.maxRecords = maxRecords;
+        this.logChannel = FileChannel.open(directory.resolve("transactions.log"), StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        this.indexChannel = FileChannel.open(directory.resolve("transactions.idx"), StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        this.log = logChannel.map(FileChannel.MapMode.READ_WRITE, 0, logBytes);
+        this.index = indexChannel.map(FileChannel.MapMode.READ_WRITE, 0, HEADER_BYTES + ((long) maxRecords + LATE_CAPACITY) * INDEX_BYTES);
+        int idSlots = Integer.highestOneBit(2 * maxRecords - 1) << 1;
+        this.idMask = idSlots - 1;
+        this.idChannel = FileChannel.open(directory.resolve("transactions.ids"), StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        this.ids = idChannel.map(FileChannel.MapMode.READ_WRITE, 0, HEADER_BYTES + (long) idSlots * ID_SLOT_BYTES);
+
+        long committed = log.getLong(0);
+        if (committed > maxRecords) {
+            throw new IllegalStateException("Log holds " + committed + " records, more than its capacity of " + maxRecords);
+        }
+        this.size = (int) committed;
+        long main = index.getLong(MAIN);
+        if (index.getLong(COUNT) != size || index.getLong(MERGING) != 0 || main < 0 || main > size || size - main >= LATE_CAPACITY) {
+            rebuildIndex();
+        } else {
+            this.mainCount = (int) main;
+        }
+        if (ids.getLong(0) != size || ids.getLong(8) != idSlots) {
+            rebuildIds();
+        }
+    }
+
+    // Returns the row of the appended transaction
+    int append(Transaction transaction) {
+        if (size == maxRecords) {
+            throw new IllegalStateException("Transaction log full");
+        }
+        byte[] id = encode(transaction.transactionId, MAX_ID_BYTES);
+        byte[] user = encode(transaction.userId, MAX_USER_BYTES);
+        if (rowOf(transaction.transactionId) != -1) {
+            throw new IllegalArgumentException("Duplicate transaction id: " + transaction.transactionId);
+        }
+
+        int offset = recordOffset(size);
+        log.put(offset + ID, (byte) id.length).put(offset + ID + 1, id);
+        log.put(offset + USER, (byte) user.length).put(offset + USER + 1, user);
+        log.putLong(offset + AMOUNT, ColumnarTransactionStore.exactUnits(transaction.amount));
+        log.putLong(offset + SECOND, transaction.timestamp.toEpochSecond(ZoneOffset.UTC));
+        log.putInt(offset + NANO, transaction.timestamp.getNano());
+
+        int row = size++;
+        log.putLong(0, size);
+
+        PageCursor key = PageCursor.of(transaction);
+        if (firstAfter(key, 0, mainCount) == mainCount) {
+            writeEntry(mainCount, row);
+            index.putLong(MAIN, ++mainCount);
+        } else {
+            // Shift later entries of the late run up by one, from the end, to make room
+            int lateEnd = maxRecords + row - mainCount;
+            int position = firstAfter(key, maxRecords, lateEnd);
+            for (int i = lateEnd; i > position; i--) copyEntry(i - 1, i);
+            writeEntry(position, row);
+        }
+        index.putLong(COUNT, size);
+        if (size - mainCount == LATE_CAPACITY) {
+            mergeLate();
+        }
+
+        insertId(row);
+        ids.putLong(0, size);
+        return row;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    // Decodes one record from the mapping
+    @Override
+    public Transaction get(int row) {
+        if (row < 0 || row >= size) {
+            throw new IndexOutOfBoundsException("Row " + row + " of " + size);
+        }
+        int offset = recordOffset(row);
+        return new Transaction(decode(offset + ID), decode(offset + USER),
+                (double) log.getLong(offset + AMOUNT) / ColumnarTransactionStore.AMOUNT_SCALE,
+                LocalDateTime.ofEpochSecond(log.getLong(offset + SECOND), log.getInt(offset + NANO), ZoneOffset.UTC));
+    }
+
+    // Binary search of both runs for the cursor, then one index entry and one record per step
+    @Override
+    public Iterator<Transaction> inPageOrder(PageCursor after) {
+        int mainEnd = mainCount, lateEnd = maxRecords + size - mainCount;
+        int mainStart = after == null ? 0 : firstAfter(after, 0, mainEnd);
+        int lateStart = after == null ? maxRecords : firstAfter(after, maxRecords, lateEnd);
+        return new Iterator<>() {
+            int main = mainStart, late = lateStart;
+
+            @Override
+            public boolean hasNext() {
+                return main < mainEnd || late < lateEnd;
+            }
+
+            @Override
+            public Transaction next() {
+                if (!hasNext()) throw new NoSuchElementException();
+                boolean fromMain = late == lateEnd || (main < mainEnd && compare(indexOffset(main), indexOffset(late)) < 0);
+                return get(index.getInt(indexOffset(fromMain ? main++ : late++) + 12));
+            }
+        };
+    }
+
+    // First index position in [from, to) whose entry sorts after the cursor
+    private int firstAfter(PageCursor cursor, int from, int to) {
+        long second = cursor.timestamp.toEpochSecond(ZoneOffset.UTC);
+        int nano = cursor.timestamp.getNano();
+
+        int lo = from, hi = to;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            int entry = indexOffset(mid);
+            int compare = Long.compare(index.getLong(entry), second);
+            if (compare == 0) compare = Integer.compare(index.getInt(entry + 8), nano);
+            if (compare == 0) compare = decode(recordOffset(index.getInt(entry + 12)) + ID).compareTo(cursor.transactionId);
+
+            if (compare <= 0) lo = mid + 1; else hi = mid;
+        }
+        return lo;
+    }
+
+    private int compare(int entry, int other) {
+        int compare = Long.compare(index.getLong(entry), index.getLong(other));
+        if (compare == 0) compare = Integer.compare(index.getInt(entry + 8), index.getInt(other + 8));
+        if (compare == 0) {
+            compare = decode(recordOffset(index.getInt(entry + 12)) + ID).compareTo(decode(recordOffset(index.getInt(other + 12)) + ID));
+        }
+        return compare;
+    }
+
+    // Merges the late run into the main run from the top down, so no main entry is overwritten before it is moved
+    private void mergeLate() {
+        index.putLong(MERGING, 1);
+        int main = mainCount - 1;
+        int late = maxRecords + size - mainCount - 1;
+        for (int to = size - 1; late >= maxRecords; to--) {
+            if (main >= 0 && compare(indexOffset(main), indexOffset(late)) > 0) {
+                copyEntry(main--, to);
+            } else {
+                copyEntry(late--, to);
+            }
+        }
+        mainCount = size;
+        index.putLong(MAIN, mainCount);
+        index.putLong(MERGING, 0);
+    }
+
+    private void rebuildIndex() {
+        Integer[] rows = new Integer[size];
+        for (int row = 0; row < size; row++) rows[row] = row;
+        Arrays.sort(rows, Comparator.comparingLong((Integer row) -> log.getLong(recordOffset(row) + SECOND))
+                .thenComparingInt(row -> log.getInt(recordOffset(row) + NANO))
+                .thenComparing(row -> decode(recordOffset(row) + ID)));
+
+        for (int position = 0; position < size; position++) writeEntry(position, rows[position]);
+        mainCount = size;
+        index.putLong(MAIN, mainCount);
+        index.putLong(MERGING, 0);
+        index.putLong(COUNT, size);
+    }
+
+    private void rebuildIds() {
+        for (long at = HEADER_BYTES; at < ids.capacity(); at += ID_SLOT_BYTES) ids.putInt((int) at, 0);
+        for (int row = 0; row < size; row++) insertId(row);
+        ids.putLong(8, idMask + 1);
+        ids.putLong(0, size);
+    }
+
+    // Row holding the transaction id, or -1; candidates are checked against the id in the log
+    private int rowOf(String transactionId) {
+        for (int slot = slotOf(transactionId); ; slot = (slot + 1) & idMask) {
+            int entry = ids.getInt(idOffset(slot));
+            if (entry == 0) return -1;
+            if (decode(recordOffset(entry - 1) + ID).equals(transactionId)) return entry - 1;
+        }
+    }
+
+    private void insertId(int row) {
+        int slot = slotOf(decode(recordOffset(row) + ID));
+        while (ids.getInt(idOffset(slot)) != 0) slot = (slot + 1) & idMask;
+        ids.putInt(idOffset(slot), row + 1);
+    }
+
+    // String.hashCode is specified, so slots stay valid across restarts
+    private int slotOf(String transactionId) {
+        int hash = transactionId.hashCode();
+        return (hash ^ (hash >>> 16)) & idMask;
+    }
+
+    private void writeEntry(int position, int row) {
+        int entry = indexOffset(position);
+        int record = recordOffset(row);
+        index.putLong(entry, log.getLong(record + SECOND));
+        index.putInt(entry + 8, log.getInt(record + NANO));
+        index.putInt(entry + 12, row);
+    }
+
+    private void copyEntry(int from, int to) {
+        int source = indexOffset(from), target = indexOffset(to);
+        index.putLong(target, index.getLong(source));
+        index.putLong(target + 8, index.getLong(source + 8));
+    }
+
+    private static byte[] encode(String value, int maxBytes) {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        if (bytes.length > maxBytes) {
+            throw new IllegalArgumentException("'" + value + "' is longer than " + maxBytes + " bytes");
+        }
+        return bytes;
+    }
+
+    private String decode(int offset) {
+        byte[] bytes = new byte[log.get(offset) & 0xFF];
+        log.get(offset + 1, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static int recordOffset(int row) {
+        return HEADER_BYTES + row * RECORD_BYTES;
+    }
+
+    private static int indexOffset(int position) {
+        return HEADER_BYTES + position * INDEX_BYTES;
+    }
+
+    private static int idOffset(int slot) {
+        return HEADER_BYTES + slot * ID_SLOT_BYTES;
+    }
+
+    void force() {
+        log.force();
+        index.force();
+        ids.force();
+    }
+
+    @Override
+    public void close() throws IOException {
+        force();
+        logChannel.close();
+        indexChannel.close();
+        idChannel.close();
+    }
+
+    // Test the logic: write a history, restart, and page through it without loading it
+    public static void main(String[] args) throws IOException {
+        Path directory = Files.createTempDirectory("transactions");
+        int rows = 1_000_000, late = 10_000;
+
+        try (TransactionLog log = new TransactionLog(directory, rows + late + 2)) {
+            for (Transaction transaction : TransactionBenchmark.randomTransactions(rows, 10_000, 3)) log.append(transaction);
+            // A late arrival, ten seconds after the start of the history
+            log.append(new Transaction("LATE", "user7", 12.5, TransactionBenchmark.START.plusSeconds(10).plusNanos(1)));
+
+            long start = System.nanoTime();
+            for (int i = 0; i < late; i++) {
+                log.append(new Transaction("LATE" + i, "user7", 1.0, TransactionBenchmark.START.plusSeconds(20 + i)));
+            }
+            System.out.printf("%d more late arrivals in %.1f ms%n", late, (System.nanoTime() - start) / 1e6);
+
+            try {
+                log.append(new Transaction("EXACT", "user7", 0.123456789, TransactionBenchmark.START));
+            } catch (IllegalArgumentException e) {
+                System.out.println("Rejected: " + e.getMessage());
+            }
+        }
+
+        long start = System.nanoTime();
+        try (TransactionLog log = new TransactionLog(directory, rows + late + 2)) {
+            System.out.printf("Reopened %d transactions in %.2f ms%n", log.size(), (System.nanoTime() - start) / 1e6);
+
+            CursorPagination cursorPagination = new CursorPagination(log);
+            PaginatedResult first = cursorPagination.getTransactionsWithPagination(null, 3);
+            System.out.println("First page: " + first.transactions);
+
+            String token = PageCursor.of(log.get(9)).encode();
+            System.out.println("After T9:   " + cursorPagination.getTransactionsWithPagination(token, 3).transactions);
+
+            System.out.println("After LATE: " + cursorPagination.getTransactionsWithPagination(PageCursor.of(log.get(rows)).encode(), 3).transactions);
+
+            String deep = PageCursor.of(log.get(900_000)).encode();
+            for (int i = 0; i < 3; i++) {
+                start = System.nanoTime();
+                PaginatedResult page = cursorPagination.getTransactionsWithPagination(deep, 100);
+                System.out.printf("Page of %d after row 900000 in %.1f us%n", page.transactions.size(), (System.nanoTime() - start) / 1e3);
+            }
+
+            LimitOffSetPagination limitOffSetPagination = new LimitOffSetPagination(log, 2);
+            System.out.println("Offset 999999: " + limitOffSetPagination.getTransactionsWithLimitOffset(999_999));
+
+            try {
+                log.append(new Transaction("LATE", "user8", 1.0, TransactionBenchmark.START));
+            } catch (IllegalArgumentException e) {
+                System.out.println("Rejected after restart: " + e.getMessage());
+            }
+        }
+    }
+}
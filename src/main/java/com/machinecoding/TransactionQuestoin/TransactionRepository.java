@@ -0,0 +1,212 @@
+package com.machinecoding.TransactionQuestoin;
+
+import java.time.LocalDateTime;
+import java.util.*;
+
+/**
+ * Transactions in insertion order, with secondary indexes from userId, amount and timestamp to the
+ * rows holding each value. Lookups return row numbers in ascending order, so results come back in
+ * the same order a full scan would produce.
+ */
+class TransactionRepository implements TransactionSource{
+
+    final List<Transaction> transactions = new ArrayList<>();
+
+    private final Map<String, PostingList> byUser = new HashMap<>();
+    private final NavigableMap<Double, PostingList> byAmount = new TreeMap<>();
+    private final NavigableMap<LocalDateTime, PostingList> byTimestamp = new TreeMap<>();
+
+    // Pagination order, kept up to date on insert so a page never re-sorts anything
+    private final NavigableMap<PageCursor, Integer> byPageOrder = new TreeMap<>();
+    private final Map<String, Integer> byId = new HashMap<>();
+
+    private final List<TransactionListener> listeners = new ArrayList<>();
+
+    public TransactionRepository() {
+        this(List.of(
+                new Transaction("T1", "user1", 100.0, LocalDateTime.now()),
+                new Transaction("T2", "user2", 200.0, LocalDateTime.now()),
+                new Transaction("T3", "user3", 300.0, LocalDateTime.now()),
+                new Transaction("T4", "user4", 400.0, LocalDateTime.now()),
+                new Transaction("T5", "user5", 500.0, LocalDateTime.now())
+        ));
+    }
+
+    public TransactionRepository(List<Transaction> transactions) {
+        transactions.forEach(this::add);
+    }
+
+    public void add(Transaction transaction) {
+        if (byId.containsKey(transaction.transactionId)) {
+            throw new IllegalArgumentException("Duplicate transaction id: " + transaction.transactionId);
+        }
+        if (Double.isNaN(transaction.amount)) {
+            throw new IllegalArgumentException("Amount is NaN: " + transaction.transactionId);
+        }
+        for (TransactionListener listener : listeners) listener.validate(transaction);
+        int row = transactions.size();
+        transactions.add(transaction);
+        byId.put(transaction.transactionId, row);
+        byPageOrder.put(PageCursor.of(transaction), row);
+        byUser.computeIfAbsent(transaction.userId, k -> new PostingList()).add(row);
+        byAmount.computeIfAbsent(amountKey(transaction.amount), k -> new PostingList()).add(row);
+        byTimestamp.computeIfAbsent(transaction.timestamp, k -> new PostingList()).add(row);
+        for (TransactionListener listener : listeners) listener.onInsert(transaction);
+    }
+
+    // The listener is first replayed the transactions already stored, then sees every insert
+    public void addListener(TransactionListener listener) {
+        transactions.forEach(listener::validate);
+        transactions.forEach(listener::onInsert);
+        listeners.add(listener);
+    }
+
+    @Override
+    public int size() {
+        return transactions.size();
+    }
+
+    @Override
+    public Transaction get(int row) {
+        return transactions.get(row);
+    }
+
+    int[] findByUser(String userId) {
+        PostingList rows = byUser.get(userId);
+        return rows == null ? new int[0] : rows.toArray();
+    }
+
+    int[] findByAmount(Operator operator, double amount) {
+        if (Double.isNaN(amount)) return new int[0];
+        return findInRange(byAmount, operator, amountKey(amount));
+    }
+
+    int[] findByTimestamp(Operator operator, LocalDateTime timestamp) {
+        return findInRange(byTimestamp, operator, timestamp);
+    }
+
+    // Range scan over a sorted index: concatenates the posting lists in range, then restores row order
+    private static <K> int[] findInRange(NavigableMap<K, PostingList> index, Operator operator, K key) {
+        NavigableMap<K, PostingList> range = range(index, operator, key);
+        PostingList rows = new PostingList();
+        for (PostingList postings : range.values()) rows.addAll(postings);
+        int[] result = rows.toArray();
+        if (range.size() > 1) Arrays.sort(result);
+        return result;
+    }
+
+    private static <K> NavigableMap<K, PostingList> range(NavigableMap<K, PostingList> index, Operator operator, K key) {
+        return switch (operator) {
+            case EQUAL -> index.subMap(key, true, key, true);
+            case GREATER_THAN -> index.tailMap(key, false);
+            case LESS_THAN -> index.headMap(key, false);
+        };
+    }
+
+    int countByUser(String userId) {
+        PostingList rows = byUser.get(userId);
+        return rows == null ? 0 : rows.size();
+    }
+
+    int countByAmount(Operator operator, double amount, int limit) {
+        if (Double.isNaN(amount)) return 0;
+        return countInRange(byAmount, operator, amountKey(amount), limit);
+    }
+
+    // The TreeMap orders keys by Double.compare, which puts -0.0 below 0.0; == treats them as one
+    // amount, so index them as one. NaN never matches a comparison and is kept out of the index.
+    private static double amountKey(double amount) {
+        return amount == 0.0 ? 0.0 : amount;
+    }
+
+    int countByTimestamp(Operator operator, LocalDateTime timestamp, int limit) {
+        return countInRange(byTimestamp, operator, timestamp, limit);
+    }
+
+    // Walks the keys in range, but not their rows, until the count reaches limit
+    private static <K> int countInRange(NavigableMap<K, PostingList> index, Operator operator, K key, int limit) {
+        int count = 0;
+        for (PostingList postings : range(index, operator, key).values()) {
+            count += postings.size();
+            if (count >= limit) break;
+        }
+        return count;
+    }
+
+    // Rows matching the criteria by testing every row
+    int[] scan(Criteria criteria) {
+        PostingList rows = new PostingList();
+        for (int row = 0; row < transactions.size(); row++) {
+            if (criteria.test(transactions.get(row))) rows.add(row);
+        }
+        return rows.toArray();
+    }
+
+    // The given rows that also match the criteria, tested one by one
+    int[] filter(int[] rows, Criteria criteria) {
+        int[] result = new int[rows.length];
+        int size = 0;
+        for (int row : rows) {
+            if (criteria.test(transactions.get(row))) result[size++] = row;
+        }
+        return Arrays.copyOf(result, size);
+    }
+
+    List<Transaction> load(int[] rows) {
+        List<Transaction> result = new ArrayList<>(rows.length);
+        for (int row : rows) result.add(transactions.get(row));
+        return result;
+    }
+
+    //fetch the first page of transactions
+    public List<Transaction> findFirstPageTransactions(int pageSize){
+        return findPageAfter(null, pageSize);
+    }
+
+    public List<Transaction> findTransactionAfterId(String transactionId, int pageSize){
+        Integer row = byId.get(transactionId);
+        if(row == null){
+            return Collections.emptyList();
+        }
+        return findPageAfter(PageCursor.of(transactions.get(row)), pageSize);
+    }
+
+    // O(log n) to position on the cursor, then one step per row
+    @Override
+    public Iterator<Transaction> inPageOrder(PageCursor after) {
+        // A plain iterator: streaming a TreeMap sub-map view sizes it first, which walks the whole range
+        Iterator<Integer> rows = (after == null ? byPageOrder.values() : byPageOrder.tailMap(after, false).values()).iterator();
+        return new Iterator<>() {
+            @Override
+            public boolean hasNext() {
+                return rows.hasNext();
+            }
+
+            @Override
+            public Transaction next() {
+                return transactions.get(rows.next());
+            }
+        };
+    }
+
+    // The first limit of the given rows after the cursor, in page order; a bounded heap keeps it O(rows log limit)
+    Iterator<Transaction> inPageOrder(int[] rows, PageCursor after, int limit) {
+        Comparator<Transaction> pageOrder = Comparator.comparing((Transaction transaction) -> transaction.timestamp)
+                .thenComparing(transaction -> transaction.transactionId);
+        PriorityQueue<Transaction> first = new PriorityQueue<>(pageOrder.reversed());
+        for (int row : rows) {
+            Transaction transaction = transactions.get(row);
+            if (after != null && PageCursor.of(transaction).compareTo(after) <= 0) continue;
+            if (first.size() < limit) {
+                first.add(transaction);
+            } else if (pageOrder.compare(transaction, first.peek()) < 0) {
+                first.poll();
+                first.add(transaction);
+            }
+        }
+        List<Transaction> page = new ArrayList<>(first);
+        page.sort(pageOrder);
+        return page.iterator();
+    }
+
+}
@@ -0,0 +1,29 @@
+package com.machinecoding.TransactionQuestoin;
+
+import java.util.*;
+
+// What the paginators read: rows in insertion order, and a walk in (timestamp, transactionId) order
+interface TransactionSource {
+    int size();
+
+    Transaction get(int row);
+
+    // Lazily walks every transaction after the cursor in page order, from the start if it is null
+    Iterator<Transaction> inPageOrder(PageCursor after);
+
+    // Up to pageSize transactions strictly after the cursor in page order
+    default List<Transaction> findPageAfter(PageCursor after, int pageSize) {
+        List<Transaction> page = new ArrayList<>(Math.min(pageSize, size()));
+        for (Iterator<Transaction> rows = inPageOrder(after); page.size() < pageSize && rows.hasNext(); ) {
+            page.add(rows.next());
+        }
+        return page;
+    }
+
+    // Up to limit transactions from offset in insertion order
+    default List<Transaction> findRange(int offset, int limit) {
+        List<Transaction> page = new ArrayList<>(Math.max(0, Math.min(limit, size() - offset)));
+        for (int row = offset; row < Math.min(offset + limit, size()); row++) page.add(get(row));
+        return page;
+    }
+}
@@ -0,0 +1,37 @@
+package com.machinecoding.TransactionQuestoin;
+
+import java.util.*;
+import java.util.stream.Collectors;
+
+class UserFilterCriteria implements Criteria{
+
+    String userId;
+    public UserFilterCriteria(String userId) {
+        this.userId = userId;
+    }
+
+    @Override
+    public boolean test(Transaction transaction) {
+        return transaction.userId.equals(this.userId);
+    }
+
+    @Override
+    public List<Transaction> satisfy(List<Transaction> transactions) {
+        return transactions.stream().filter(this::test).collect(Collectors.toList());
+    }
+
+    @Override
+    public int[] rows(TransactionRepository repository) {
+        return repository.findByUser(userId);
+    }
+
+    @Override
+    public int estimate(TransactionRepository repository, int limit) {
+        return repository.countByUser(userId);
+    }
+
+    @Override
+    public long[] bitmap(ColumnarTransactionStore store) {
+        return store.matchUser(userId);
+    }
+}